@@ -0,0 +1,48 @@
+package jp.co.axa.api.demo.benchmark;
+
+import jp.co.axa.api.demo.ApiDemoApplication;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSaveResultDTO;
+import jp.co.axa.api.demo.services.employee.EmployeeService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The application as the benchmarks see it: the dev profile on an in memory database, without the logging and
+ * admission control that would be measured instead of the code under test.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ApiDemoApplication.class)
+                .run("--spring.profiles.active=dev", "--server.port=0", "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.security=WARN", "--api.demo.admission.enabled=false");
+    }
+
+    /**
+     * Creates the given number of employees through the bulk insert of the service.
+     *
+     * @return ids of the created employees
+     */
+    static List<Long> seed(EmployeeService employeeService, int employees) {
+        List<Long> ids = new ArrayList<>(employees);
+        for (int from = 0; from < employees; from += BulkEmployeeSaveDTO.MAX_EMPLOYEES) {
+            List<EmployeeInfoDTO> chunk = IntStream.range(from, Math.min(employees, from + BulkEmployeeSaveDTO.MAX_EMPLOYEES))
+                    .mapToObj(i -> new EmployeeInfoDTO("Employee " + i, 1000 + i % 9000, "Department " + i % 20))
+                    .collect(Collectors.toList());
+            employeeService.saveEmployees(chunk).getResults().stream()
+                    .map(EmployeeSaveResultDTO::getId)
+                    .forEach(ids::add);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,98 @@
+package jp.co.axa.api.demo.benchmark;
+
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.exceptions.EmployeeAPIException;
+import jp.co.axa.api.demo.services.employee.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static jp.co.axa.api.demo.configuration.CacheConfiguration.EMPLOYEE_CACHE;
+
+/**
+ * {@code EmployeeService.getEmployee} through its cache proxy: for an employee in the employee cache, for one
+ * evicted from it before every call, so it is loaded from the database, and for an id with no employee, answered
+ * from the miss cache after the first call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeLookupBenchmark {
+
+    private static final int EMPLOYEES = 1000;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private Long existingId;
+
+    private Long missingId;
+
+    private Cache employeeCache;
+
+    /**
+     * Takes the existing employee out of the employee cache before every call of the benchmark using it.
+     */
+    @State(Scope.Thread)
+    public static class Evicted {
+
+        @Setup(Level.Invocation)
+        public void evict(EmployeeLookupBenchmark benchmark) {
+            benchmark.employeeCache.evict(benchmark.existingId);
+        }
+    }
+
+    @Setup
+    public void start() {
+        context = BenchmarkApplication.start();
+        employeeService = context.getBean(EmployeeService.class);
+        List<Long> ids = BenchmarkApplication.seed(employeeService, EMPLOYEES);
+        existingId = ids.get(EMPLOYEES / 2);
+        missingId = Collections.max(ids) + EMPLOYEES;
+        employeeCache = context.getBean(CacheManager.class).getCache(EMPLOYEE_CACHE);
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public EmployeeDTO getEmployeeHit() throws EmployeeAPIException {
+        return employeeService.getEmployee(existingId);
+    }
+
+    @Benchmark
+    public EmployeeDTO getEmployeeMiss(Evicted evicted) throws EmployeeAPIException {
+        return employeeService.getEmployee(existingId);
+    }
+
+    @Benchmark
+    public Object getEmployeeNegativeHit() {
+        try {
+            return employeeService.getEmployee(missingId);
+        } catch (EmployeeAPIException exception) {
+            return exception;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package jp.co.axa.api.demo.benchmark;
+
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.entities.employee.Employee;
+import jp.co.axa.api.demo.mappers.employee.EmployeeMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion of {@link EmployeeMapper}, for one employee and for a page of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeMapperBenchmark {
+
+    private static final int PAGE = 500;
+
+    private final EmployeeMapper employeeMapper = new EmployeeMapper();
+
+    private Employee employee;
+
+    private List<Employee> employees;
+
+    @Setup
+    public void createEmployees() {
+        employees = new ArrayList<>(PAGE);
+        for (long id = 1; id <= PAGE; id++) {
+            employees.add(new Employee(id, "Employee " + id, 1000 + (int) id, "Department " + id % 20));
+        }
+        employee = employees.get(0);
+    }
+
+    @Benchmark
+    public EmployeeDTO toDTO() {
+        return employeeMapper.toDTO(employee);
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> toDTOPage() {
+        List<EmployeeDTO> page = new ArrayList<>(employees.size());
+        for (Employee entity : employees) {
+            page.add(employeeMapper.toDTO(entity));
+        }
+        return page;
+    }
+}
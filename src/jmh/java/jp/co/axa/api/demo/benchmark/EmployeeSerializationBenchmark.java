@@ -0,0 +1,56 @@
+package jp.co.axa.api.demo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link BulkEmployeeGetDTO}, with an object mapper configured the way spring mvc
+ * configures the one of the json message converter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeSerializationBenchmark {
+
+    @Param({"50", "500", "10000"})
+    private int employees;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private BulkEmployeeGetDTO bulkEmployees;
+
+    @Setup
+    public void createEmployees() {
+        List<EmployeeDTO> list = new ArrayList<>(employees);
+        for (long id = 1; id <= employees; id++) {
+            list.add(new EmployeeDTO("Employee " + id, 1000 + (int) id, "Department " + id % 20, id, 0L));
+        }
+        bulkEmployees = new BulkEmployeeGetDTO(list);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bulkEmployees);
+    }
+}
@@ -0,0 +1,61 @@
+package jp.co.axa.api.demo.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of the admission control of employee requests, {@code api.demo.admission.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.demo.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Rate of every principal per endpoint class, {@code read}, {@code write} or {@code bulk}.
+     */
+    private Map<String, RateSpec> rates = new LinkedHashMap<>();
+
+    private ConcurrencySpec concurrency = new ConcurrencySpec();
+
+    @Data
+    public static class RateSpec {
+
+        private double permitsPerSecond = 100;
+
+        /**
+         * Requests a principal can make at once after being idle.
+         */
+        private int burst = 200;
+    }
+
+    @Data
+    public static class ConcurrencySpec {
+
+        private int initialLimit = 64;
+
+        private int minLimit = 8;
+
+        private int maxLimit = 512;
+
+        /**
+         * A request slower than this many times the lowest recent latency lowers the limit.
+         */
+        private double tolerance = 2.0;
+
+        /**
+         * Latencies under this never lower the limit, so a fast baseline does not make it jumpy.
+         */
+        private Duration minLatencyThreshold = Duration.ofMillis(50);
+
+        /**
+         * The lowest latency is learned again after this long, it follows changes of the load.
+         */
+        private Duration baselineWindow = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,58 @@
+package jp.co.axa.api.demo.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.co.axa.api.demo.controllers.bulkhead.Bulkhead;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Employee requests run on one of three bulkheads instead of the servlet container threads:
+ * <p>
+ * {@code read} for single employee and name lookups, cheap and mostly answered from memory.
+ * <p>
+ * {@code write} for creating, updating and deleting one employee.
+ * <p>
+ * {@code bulk} for lists, searches, bulk inserts and streams, which can hold a connection for long.
+ * <p>
+ * A saturated bulkhead sheds its own requests with 503, the others keep their threads. Tasks are wrapped by the
+ * {@link TaskDecorator} bean, when there is one.
+ */
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfiguration {
+
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+    public static final String BULK = "bulk";
+
+    @Bean
+    public Bulkhead readBulkhead(BulkheadProperties bulkheadProperties, MeterRegistry meterRegistry,
+                                 ObjectProvider<TaskDecorator> taskDecorator) {
+        return bulkhead(READ, bulkheadProperties, meterRegistry, taskDecorator);
+    }
+
+    @Bean
+    public Bulkhead writeBulkhead(BulkheadProperties bulkheadProperties, MeterRegistry meterRegistry,
+                                  ObjectProvider<TaskDecorator> taskDecorator) {
+        return bulkhead(WRITE, bulkheadProperties, meterRegistry, taskDecorator);
+    }
+
+    @Bean
+    public Bulkhead bulkBulkhead(BulkheadProperties bulkheadProperties, MeterRegistry meterRegistry,
+                                 ObjectProvider<TaskDecorator> taskDecorator) {
+        return bulkhead(BULK, bulkheadProperties, meterRegistry, taskDecorator);
+    }
+
+    private static Bulkhead bulkhead(String name, BulkheadProperties bulkheadProperties, MeterRegistry meterRegistry,
+                                     ObjectProvider<TaskDecorator> taskDecorator) {
+        BulkheadProperties.BulkheadSpec spec = bulkheadProperties.getSpecs()
+                .getOrDefault(name, new BulkheadProperties.BulkheadSpec());
+        return new Bulkhead(name, spec.getThreads(), spec.getQueueCapacity(), spec.getTimeout(), meterRegistry,
+                taskDecorator.getIfAvailable(() -> task -> task));
+    }
+}
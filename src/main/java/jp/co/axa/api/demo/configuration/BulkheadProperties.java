@@ -0,0 +1,34 @@
+package jp.co.axa.api.demo.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pool settings of every bulkhead, {@code api.demo.bulkhead.specs.<bulkhead name>.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.demo.bulkhead")
+public class BulkheadProperties {
+
+    private Map<String, BulkheadSpec> specs = new LinkedHashMap<>();
+
+    @Data
+    public static class BulkheadSpec {
+
+        private int threads = 8;
+
+        /**
+         * Requests waiting for a thread, more are rejected. Zero only runs requests a thread is free for.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Time from submission, queueing included, after which the request fails.
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+}
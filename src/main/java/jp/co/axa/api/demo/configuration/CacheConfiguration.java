@@ -1,32 +1,116 @@
 package jp.co.axa.api.demo.configuration;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.services.employee.EmployeeCacheLoader;
+import jp.co.axa.api.demo.services.employee.ReactiveEmployeeCacheLoader;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
 
-import java.util.concurrent.TimeUnit;
 
-
-@EnableCaching
+/**
+ * Caching wraps the transaction of a write, so {@code @CacheEvict} runs once the write committed and its
+ * after commit hooks counted it: a reader that loaded the old row either sees the count move or puts before the evict.
+ */
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 @Configuration
+@EnableConfigurationProperties(CacheSpecProperties.class)
 public class CacheConfiguration {
 
-    @Value("${api.demo.cache.timeout}")
-    long cacheTimeout;
+    public static final String EMPLOYEE_CACHE = "employeeCache";
+    public static final String EMPLOYEE_MISS_CACHE = "employeeMissCache";
+    public static final String EMPLOYEE_BODY_CACHE = "employeeBodyCache";
+    public static final String CREDENTIAL_CACHE = "credentialCache";
+    public static final String RATE_LIMIT_CACHE = "rateLimitCache";
 
+    /**
+     * Builder of the caches that have no spec of their own.
+     */
     @Bean
-    public Caffeine<Object, Object> caffeineConfiguration() {
-        return Caffeine.newBuilder().expireAfterWrite(cacheTimeout, TimeUnit.MINUTES);
+    public Caffeine<Object, Object> caffeineConfiguration(CacheSpecProperties cacheSpecProperties) {
+        return cacheSpecProperties.getDefaults().toBuilder();
     }
 
+    /**
+     * Every cache is built from its {@code api.demo.cache.specs.<cache name>} settings.
+     * <p>
+     * {@code employeeCache} is a loading cache, with {@code refresh-after-write} an entry still in use is
+     * reloaded in the background while the old value is served, so hot employees do not expire on a request thread.
+     * <p>
+     * {@code employeeMissCache} remembers the IDs no employee was found for, for a few seconds only, so repeated
+     * lookups of unknown IDs do not all reach the database. Its size is bounded as anyone can ask for any ID.
+     * <p>
+     * {@code employeeBodyCache} keeps the encoded response bodies of single employees, so a hit is not serialized again.
+     * <p>
+     * {@code credentialCache} remembers successful password checks for a few minutes, see {@link CachingPasswordEncoder}.
+     * <p>
+     * {@code rateLimitCache} keeps the token bucket of every principal and endpoint class while it is in use.
+     * <p>
+     * Caches recording stats are exported as {@code cache.*} metrics by spring boot actuator.
+     */
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
+    @Profile("!reactive")
+    public CacheManager cacheManager(Caffeine<Object, Object> caffeine, CacheSpecProperties cacheSpecProperties,
+                                     EmployeeCacheLoader employeeCacheLoader) {
         CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
         caffeineCacheManager.setCaffeine(caffeine);
+        cacheSpecProperties.getSpecs().forEach((name, spec) -> {
+            Caffeine<Object, Object> builder = spec.toBuilder();
+            caffeineCacheManager.registerCustomCache(name,
+                    EMPLOYEE_CACHE.equals(name) ? builder.build(employeeCacheLoader) : builder.build());
+        });
         return caffeineCacheManager;
     }
+
+    /**
+     * {@code employeeCache} of the reactive profile, built from the same spec. Its values are futures, so
+     * concurrent misses share one database read without any thread waiting on it.
+     */
+    @Bean
+    @Profile("reactive")
+    public AsyncLoadingCache<Long, EmployeeDTO> reactiveEmployeeCache(CacheSpecProperties cacheSpecProperties,
+                                                                      ReactiveEmployeeCacheLoader employeeCacheLoader,
+                                                                      MeterRegistry meterRegistry) {
+        AsyncLoadingCache<Long, EmployeeDTO> cache = spec(cacheSpecProperties, EMPLOYEE_CACHE).toBuilder()
+                .buildAsync(employeeCacheLoader);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), EMPLOYEE_CACHE);
+        return cache;
+    }
+
+    /**
+     * {@code employeeMissCache} of the reactive profile, built from the same spec.
+     */
+    @Bean
+    @Profile("reactive")
+    public Cache<Long, Long> reactiveEmployeeMissCache(CacheSpecProperties cacheSpecProperties, MeterRegistry meterRegistry) {
+        Cache<Long, Long> cache = spec(cacheSpecProperties, EMPLOYEE_MISS_CACHE).toBuilder().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, EMPLOYEE_MISS_CACHE);
+        return cache;
+    }
+
+    /**
+     * {@code credentialCache} of the reactive profile, built from the same spec.
+     */
+    @Bean
+    @Profile("reactive")
+    public CaffeineCache reactiveCredentialCache(CacheSpecProperties cacheSpecProperties, MeterRegistry meterRegistry) {
+        Cache<Object, Object> cache = spec(cacheSpecProperties, CREDENTIAL_CACHE).toBuilder().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CREDENTIAL_CACHE);
+        return new CaffeineCache(CREDENTIAL_CACHE, cache);
+    }
+
+    private static CacheSpecProperties.CacheSpec spec(CacheSpecProperties cacheSpecProperties, String name) {
+        return cacheSpecProperties.getSpecs().getOrDefault(name, cacheSpecProperties.getDefaults());
+    }
 }
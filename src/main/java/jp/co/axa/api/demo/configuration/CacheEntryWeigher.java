@@ -0,0 +1,61 @@
+package jp.co.axa.api.demo.configuration;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import jp.co.axa.api.demo.controllers.converters.EncodedEmployee;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+
+/**
+ * Rough heap size in bytes of a cache entry, so a cache can be bounded by memory rather than by entry count.
+ * Assumes a 64 bit JVM with compressed references and compact strings.
+ */
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    //caffeine node and hash table slot of the entry
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 4;
+    //String object plus the header of its byte array
+    private static final int STRING_OVERHEAD = 40;
+    private static final int BOXED_NUMBER = 16;
+    //holder, its map and one body
+    private static final int ENCODED_OVERHEAD = 160;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return ENTRY_OVERHEAD + sizeOf(key) + sizeOf(value);
+    }
+
+    static int sizeOf(Object object) {
+        if (object == null || object instanceof Boolean) {
+            //null or a shared constant
+            return 0;
+        }
+        if (object instanceof Number) {
+            return BOXED_NUMBER;
+        }
+        if (object instanceof String) {
+            return sizeOf((String) object);
+        }
+        if (object instanceof EmployeeDTO) {
+            EmployeeDTO employee = (EmployeeDTO) object;
+            return OBJECT_HEADER + 5 * REFERENCE + BOXED_NUMBER * 3 + sizeOf(employee.getName()) + sizeOf(employee.getDepartment());
+        }
+        if (object instanceof EncodedEmployee) {
+            return ENCODED_OVERHEAD + ((EncodedEmployee) object).size();
+        }
+        return OBJECT_HEADER;
+    }
+
+    private static int sizeOf(String text) {
+        if (text == null) {
+            return 0;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            //one char outside latin 1 and the whole string takes two bytes per char
+            if (text.charAt(i) > 0xFF) {
+                return STRING_OVERHEAD + 2 * text.length();
+            }
+        }
+        return STRING_OVERHEAD + text.length();
+    }
+}
@@ -0,0 +1,73 @@
+package jp.co.axa.api.demo.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caffeine settings of every cache, {@code api.demo.cache.specs.<cache name>.*}.
+ * Caches without a spec of their own are built with {@code api.demo.cache.defaults.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.demo.cache")
+public class CacheSpecProperties {
+
+    private CacheSpec defaults = new CacheSpec();
+
+    private Map<String, CacheSpec> specs = new LinkedHashMap<>();
+
+    @Data
+    public static class CacheSpec {
+
+        /**
+         * Maximum number of entries. Cannot be used with maximumWeight.
+         */
+        private Long maximumSize;
+
+        /**
+         * Maximum estimated size of the entries in bytes, see {@link CacheEntryWeigher}. Cannot be used with maximumSize.
+         */
+        private Long maximumWeight;
+
+        private Duration expireAfterWrite;
+
+        private Duration expireAfterAccess;
+
+        /**
+         * Only for caches that have a loader.
+         */
+        private Duration refreshAfterWrite;
+
+        /**
+         * Needed for the hit, miss, eviction and load metrics of the cache.
+         */
+        private boolean recordStats;
+
+        public Caffeine<Object, Object> toBuilder() {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder();
+            if (maximumSize != null) {
+                builder.maximumSize(maximumSize);
+            }
+            if (maximumWeight != null) {
+                builder.maximumWeight(maximumWeight).weigher(new CacheEntryWeigher());
+            }
+            if (expireAfterWrite != null) {
+                builder.expireAfterWrite(expireAfterWrite);
+            }
+            if (expireAfterAccess != null) {
+                builder.expireAfterAccess(expireAfterAccess);
+            }
+            if (refreshAfterWrite != null) {
+                builder.refreshAfterWrite(refreshAfterWrite);
+            }
+            if (recordStats) {
+                builder.recordStats();
+            }
+            return builder;
+        }
+    }
+}
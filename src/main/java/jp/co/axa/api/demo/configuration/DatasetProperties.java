@@ -0,0 +1,24 @@
+package jp.co.axa.api.demo.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Synthetic employees loaded at startup by the {@code scale-test} profile, {@code api.demo.dataset.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.demo.dataset")
+public class DatasetProperties {
+
+    private long rows = 1_000_000;
+
+    /**
+     * Seed of the generator, the same seed always loads the same employees.
+     */
+    private long seed = 42;
+
+    /**
+     * Rows per JDBC batch, each batch is committed on its own.
+     */
+    private int batchSize = 10_000;
+}
@@ -0,0 +1,76 @@
+package jp.co.axa.api.demo.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.co.axa.api.demo.controllers.diagnostics.RequestDiagnostics;
+import jp.co.axa.api.demo.controllers.diagnostics.RequestDiagnosticsFilter;
+import jp.co.axa.api.demo.controllers.diagnostics.SqlDiagnostics;
+import jp.co.axa.api.demo.controllers.diagnostics.SqlDiagnosticsEndpoint;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * Opt in sql diagnostics, with {@code --spring.profiles.active=dev,diagnostics}:
+ * <p>
+ * The datasource is wrapped by datasource-proxy, so every statement, hibernate's and {@code JdbcTemplate}'s, is
+ * counted into the request running it and slow ones are logged with their bind parameters.
+ * <p>
+ * The bulkheads carry the request over to their threads, see {@link RequestDiagnostics#propagate(Runnable)}.
+ * <p>
+ * Bind parameters hold employee data, this is not meant to stay on in production.
+ */
+@Configuration
+@Profile("diagnostics & !reactive")
+@EnableConfigurationProperties(DiagnosticsProperties.class)
+public class DiagnosticsConfiguration {
+
+    @Bean
+    public SqlDiagnostics sqlDiagnostics(DiagnosticsProperties diagnosticsProperties, MeterRegistry meterRegistry) {
+        return new SqlDiagnostics(diagnosticsProperties, meterRegistry);
+    }
+
+    /**
+     * Static, bean post processors are created before the other beans. The listener is looked up on the first
+     * statement, the meter registry of {@link SqlDiagnostics} binds the pool metrics of the datasource being wrapped.
+     */
+    @Bean
+    public static BeanPostProcessor diagnosticsDataSourcePostProcessor(ObjectProvider<SqlDiagnostics> sqlDiagnostics) {
+        SingletonSupplier<SqlDiagnostics> listener = SingletonSupplier.of(sqlDiagnostics::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                        .afterQuery((execInfo, queryInfoList) -> listener.obtain().afterQuery(execInfo, queryInfoList))
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public RequestDiagnosticsFilter requestDiagnosticsFilter(SqlDiagnostics sqlDiagnostics) {
+        return new RequestDiagnosticsFilter(sqlDiagnostics);
+    }
+
+    @Bean
+    public TaskDecorator requestDiagnosticsDecorator() {
+        return RequestDiagnostics::propagate;
+    }
+
+    @Bean
+    public SqlDiagnosticsEndpoint sqlDiagnosticsEndpoint(SqlDiagnostics sqlDiagnostics,
+                                                         EntityManagerFactory entityManagerFactory) {
+        return new SqlDiagnosticsEndpoint(sqlDiagnostics, entityManagerFactory);
+    }
+}
@@ -0,0 +1,40 @@
+package jp.co.axa.api.demo.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of the sql diagnostics of the {@code diagnostics} profile, {@code api.demo.diagnostics.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.demo.diagnostics")
+public class DiagnosticsProperties {
+
+    /**
+     * Statements slower than this are logged with their bind parameters.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(100);
+
+    /**
+     * Statements one request may run, a batch counts once. Requests over it are logged and kept apart.
+     */
+    private int statementBudget = 5;
+
+    /**
+     * Budgets of handlers running more statements by design, by handler method name, e.g. {@code saveEmployees}.
+     */
+    private Map<String, Integer> statementBudgets = new LinkedHashMap<>();
+
+    /**
+     * Requests, requests over budget and slow statements kept for the {@code sqldiagnostics} endpoint, each.
+     */
+    private int retained = 100;
+
+    public int statementBudget(String handler) {
+        return statementBudgets.getOrDefault(handler, statementBudget);
+    }
+}
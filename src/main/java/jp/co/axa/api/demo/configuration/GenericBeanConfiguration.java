@@ -1,6 +1,6 @@
 package jp.co.axa.api.demo.configuration;
 
-import org.modelmapper.ModelMapper;
+import jp.co.axa.api.demo.mappers.employee.EmployeeMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -8,7 +8,7 @@ import org.springframework.context.annotation.Configuration;
 public class GenericBeanConfiguration {
 
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
+    public EmployeeMapper employeeMapper() {
+        return new EmployeeMapper();
     }
 }
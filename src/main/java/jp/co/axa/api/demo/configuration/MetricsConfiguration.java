@@ -0,0 +1,58 @@
+package jp.co.axa.api.demo.configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Timers of every layer of an employee request, exported on {@code /actuator/prometheus} (admin only):
+ * <p>
+ * {@code http.server.requests} per controller method, tagged with the {@code handler} method as some of them share
+ * a path. The whole request, bulkhead queueing and serialization included.
+ * <p>
+ * {@code employee.service} per {@code EmployeeService} method, from its {@code @Timed}. Cache lookups included,
+ * {@code cache.gets{result=hit|miss}} tells how many were answered from the cache.
+ * <p>
+ * {@code spring.data.repository.invocations} per repository method, the database time.
+ * <p>
+ * The pool gauges of hikari ({@code hikaricp.connections.*}) are bound by spring boot.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    public static final String SERVICE_TIMER = "employee.service";
+
+    private static final String HANDLER_TAG = "handler";
+    private static final String NO_HANDLER = "none";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public WebMvcTagsContributor handlerTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Throwable exception) {
+                return Tags.of(HANDLER_TAG, handler instanceof HandlerMethod ? ((HandlerMethod) handler).getMethod().getName() : NO_HANDLER);
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package jp.co.axa.api.demo.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import static jp.co.axa.api.demo.configuration.SecurityConfiguration.ACTUATOR_PATH;
+import static jp.co.axa.api.demo.configuration.SecurityConfiguration.ADMIN_ROLE;
+import static jp.co.axa.api.demo.configuration.SecurityConfiguration.EMPLOYEE_API_PATH;
+import static jp.co.axa.api.demo.configuration.SecurityConfiguration.USER_ROLE;
+
+/**
+ * Same access rules and users as {@link SecurityConfiguration}, for the webflux stack of the {@code reactive} profile.
+ */
+@EnableWebFluxSecurity
+@Profile("reactive")
+public class ReactiveSecurityConfiguration {
+
+    @Value("${api.demo.user.username}")
+    String userName;
+
+    @Value("${api.demo.admin.username}")
+    String adminName;
+
+    @Value("${api.demo.user.password}")
+    String userPassword;
+
+    @Value("${api.demo.admin.password}")
+    String adminPassword;
+
+    private final PasswordEncoder encoder =
+            PasswordEncoderFactories.createDelegatingPasswordEncoder();
+
+    @Bean
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+        return http.authorizeExchange()
+                .pathMatchers(HttpMethod.GET, EMPLOYEE_API_PATH, EMPLOYEE_API_PATH + "/*").hasAnyRole(USER_ROLE, ADMIN_ROLE)
+                .pathMatchers(HttpMethod.POST, EMPLOYEE_API_PATH, EMPLOYEE_API_PATH + "/*").hasRole(ADMIN_ROLE)
+                .pathMatchers(HttpMethod.PUT, EMPLOYEE_API_PATH).hasRole(ADMIN_ROLE)
+                .pathMatchers(HttpMethod.PATCH, EMPLOYEE_API_PATH + "/*").hasRole(ADMIN_ROLE)
+                .pathMatchers(HttpMethod.DELETE, EMPLOYEE_API_PATH + "/*").hasRole(ADMIN_ROLE)
+                .pathMatchers(ACTUATOR_PATH + "/health").permitAll()
+                .pathMatchers(ACTUATOR_PATH + "/**").hasRole(ADMIN_ROLE)
+                .pathMatchers("/login*", "/swagger-ui/**").permitAll()
+                .anyExchange().authenticated()
+                .and()
+                .httpBasic(Customizer.withDefaults())
+                //stateless, nothing is kept between requests
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .headers().frameOptions().disable()
+                .and().csrf().disable()
+                .build();
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(CaffeineCache reactiveCredentialCache) {
+        return new CachingPasswordEncoder(encoder, reactiveCredentialCache);
+    }
+
+    @Bean
+    public MapReactiveUserDetailsService userDetailsService() {
+        UserDetails user = User.builder()
+                .username(userName)
+                .password(encoder.encode(userPassword))
+                .roles(USER_ROLE)
+                .build();
+
+        UserDetails admin = User.builder()
+                .username(adminName)
+                .password(encoder.encode(adminPassword))
+                .roles(ADMIN_ROLE)
+                .build();
+        return new MapReactiveUserDetailsService(user, admin);
+    }
+}
@@ -0,0 +1,22 @@
+package jp.co.axa.api.demo.configuration;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Webflux setup of the {@code reactive} profile.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfiguration {
+
+    /**
+     * Tomcat is on the classpath for the servlet stack and spring boot would prefer it, run on netty's event loops instead.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
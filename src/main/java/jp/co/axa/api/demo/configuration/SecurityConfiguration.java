@@ -1,7 +1,13 @@
 package jp.co.axa.api.demo.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.co.axa.api.demo.controllers.admission.AdmissionControlFilter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
@@ -14,9 +20,12 @@ import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @EnableWebSecurity
+@Profile("!reactive")
 @EnableGlobalMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties(AdmissionControlProperties.class)
 public class SecurityConfiguration {
 
     @Value("${api.demo.user.username}")
@@ -37,16 +46,32 @@ public class SecurityConfiguration {
             PasswordEncoderFactories.createDelegatingPasswordEncoder();
 
     public static final String EMPLOYEE_API_PATH = "/api/v1/employees";
+    public static final String ACTUATOR_PATH = "/actuator";
 
+    /**
+     * Employee requests go through {@link AdmissionControlFilter} once authenticated, so rate limits are per principal.
+     * It is not a bean, spring boot would also register it with the servlet container.
+     */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AdmissionControlProperties admissionControlProperties,
+                                           CacheManager cacheManager, MeterRegistry meterRegistry,
+                                           ObjectMapper objectMapper) throws Exception {
+        if (admissionControlProperties.isEnabled()) {
+            http.addFilterAfter(new AdmissionControlFilter(admissionControlProperties,
+                    cacheManager.getCache(CacheConfiguration.RATE_LIMIT_CACHE), meterRegistry, objectMapper),
+                    BasicAuthenticationFilter.class);
+        }
         return http.authorizeRequests()
                 //match api paths and provide access to appropriate user.
                 .antMatchers(HttpMethod.GET, EMPLOYEE_API_PATH + "/*").access("hasRole('USER') or hasRole('ADMIN')")
                 .antMatchers(HttpMethod.GET, EMPLOYEE_API_PATH).access("hasRole('USER') or hasRole('ADMIN')")
                 .antMatchers(HttpMethod.POST, EMPLOYEE_API_PATH).access("hasRole('ADMIN')")
+                .antMatchers(HttpMethod.POST, EMPLOYEE_API_PATH + "/*").access("hasRole('ADMIN')")
                 .antMatchers(HttpMethod.PUT, EMPLOYEE_API_PATH).access("hasRole('ADMIN')")
+                .antMatchers(HttpMethod.PATCH, EMPLOYEE_API_PATH + "/*").access("hasRole('ADMIN')")
                 .antMatchers(HttpMethod.DELETE, EMPLOYEE_API_PATH + "/*").access("hasRole('ADMIN')")
+                .antMatchers(ACTUATOR_PATH + "/health").permitAll()
+                .antMatchers(ACTUATOR_PATH + "/**").access("hasRole('ADMIN')")
                 .antMatchers("/login*", "/swagger-ui/**").permitAll()
                 .anyRequest().authenticated()
                 .and()
@@ -58,6 +83,14 @@ public class SecurityConfiguration {
                 .build();
     }
 
+    /**
+     * Used by basic authentication, a successful bcrypt check is remembered for a few minutes.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(CacheManager cacheManager) {
+        return new CachingPasswordEncoder(encoder, cacheManager.getCache(CacheConfiguration.CREDENTIAL_CACHE));
+    }
+
     @Bean
     public InMemoryUserDetailsManager userDetailsService() {
         UserDetails user = User.builder()
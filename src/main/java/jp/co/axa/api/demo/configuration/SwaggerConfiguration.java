@@ -1,8 +1,12 @@
 package jp.co.axa.api.demo.configuration;
 
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 import springfox.bean.validators.configuration.BeanValidatorPluginsConfiguration;
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
@@ -10,6 +14,10 @@ import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.service.ApiInfo;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
+
+import java.lang.reflect.Field;
+import java.util.List;
 
 @Configuration
 @Import(BeanValidatorPluginsConfiguration.class)
@@ -28,6 +36,31 @@ public class SwaggerConfiguration {
                 .build().apiInfo(info());
     }
 
+    /**
+     * Actuator endpoints are mapped with path patterns, which springfox 3 cannot read and fails on at startup.
+     * Only the annotated controllers are documented anyway, so springfox is given the other handler mappings only.
+     */
+    @Bean
+    public static BeanPostProcessor springfoxHandlerProviderBeanPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof WebMvcRequestHandlerProvider) {
+                    removePathPatternMappings(bean);
+                }
+                return bean;
+            }
+
+            @SuppressWarnings("unchecked")
+            private void removePathPatternMappings(Object provider) {
+                Field field = ReflectionUtils.findField(provider.getClass(), "handlerMappings");
+                ReflectionUtils.makeAccessible(field);
+                List<RequestMappingInfoHandlerMapping> mappings = (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, provider);
+                mappings.removeIf(mapping -> mapping.getPatternParser() != null);
+            }
+        };
+    }
+
     private ApiInfo info() {
 
         return new ApiInfoBuilder()
@@ -0,0 +1,99 @@
+package jp.co.axa.api.demo.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.co.axa.api.demo.controllers.bulkhead.Bulkhead;
+import jp.co.axa.api.demo.controllers.converters.CachedEmployeeHttpMessageConverter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static jp.co.axa.api.demo.configuration.CacheConfiguration.EMPLOYEE_BODY_CACHE;
+
+/**
+ * Spring MVC setup of the default, servlet, stack. The {@code reactive} profile runs on webflux instead.
+ */
+@Configuration
+@EnableWebMvc
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class WebConfiguration implements WebMvcConfigurer {
+
+    @NonNull
+    private final Bulkhead bulkBulkhead;
+
+    @NonNull
+    private final CacheManager cacheManager;
+
+    @Value("${api.demo.async.timeout-ms}")
+    long asyncTimeout;
+
+    @Value("${api.demo.cache.encoded-employees}")
+    boolean encodedEmployees;
+
+    /**
+     * {@code @EnableWebMvc} switches off spring boot's mvc auto configuration, so streaming responses
+     * would run on a new thread per request with the servlet container's default timeout.
+     * They run on the bulk bulkhead instead, with our own timeout as a stream can take long.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        ConcurrentTaskExecutor executor = new ConcurrentTaskExecutor(bulkBulkhead.getExecutor());
+        executor.setTaskDecorator(bulkBulkhead.getTaskDecorator());
+        configurer.setTaskExecutor(executor);
+        configurer.setDefaultTimeout(asyncTimeout);
+    }
+
+    /**
+     * Single employees are written from cached bytes, with the same object mappers as the jackson converters
+     * so the output does not change. Goes first, the jackson converters still write everything else.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (!encodedEmployees) {
+            return;
+        }
+        Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter) {
+                ObjectMapper objectMapper = ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+                converter.getSupportedMediaTypes().stream()
+                        .filter(mediaType -> !mediaType.isWildcardSubtype())
+                        .forEach(mediaType -> objectMappers.putIfAbsent(mediaType, objectMapper));
+            }
+        }
+        converters.add(0, new CachedEmployeeHttpMessageConverter(cacheManager.getCache(EMPLOYEE_BODY_CACHE), objectMappers));
+    }
+
+    /**
+     * Api responses are JSON, Smile or CBOR depending on the Accept header, so caches must not mix them up.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,116 @@
+package jp.co.axa.api.demo.controllers.admission;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limit of the requests in flight that follows their latency, additive increase and multiplicative decrease.
+ * <p>
+ * The lowest latency of the current window is the baseline of an unloaded server. A request slower than the baseline
+ * times the tolerance has queued somewhere, and lowers the limit by a tenth, at most once per such latency.
+ * Requests at normal latency raise the limit by one per limit requests, as long as at least half of it is used.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final long minLatencyThresholdNanos;
+
+    private final long baselineWindowNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger limit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong baseline = new AtomicLong(Long.MAX_VALUE);
+
+    private final AtomicLong baselineSince;
+
+    private final AtomicLong lastDecrease;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                    Duration minLatencyThreshold, Duration baselineWindow) {
+        this(initialLimit, minLimit, maxLimit, tolerance, minLatencyThreshold, baselineWindow, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                             Duration minLatencyThreshold, Duration baselineWindow, LongSupplier nanoClock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.minLatencyThresholdNanos = minLatencyThreshold.toNanos();
+        this.baselineWindowNanos = baselineWindow.toNanos();
+        this.nanoClock = nanoClock;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        long now = nanoClock.getAsLong();
+        this.baselineSince = new AtomicLong(now);
+        this.lastDecrease = new AtomicLong(now - minLatencyThresholdNanos);
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Admits a request when fewer than the limit are in flight, it must then be {@link #release released}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted request whose duration says nothing about queueing, e.g. a stream, the limit is left as is.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Ends an admitted request, and adapts the limit to its latency.
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        long now = nanoClock.getAsLong();
+        long threshold = Math.max((long) (updateBaseline(latencyNanos, now) * tolerance), minLatencyThresholdNanos);
+        if (latencyNanos > threshold) {
+            long last = lastDecrease.get();
+            if (now - last >= threshold && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * BACKOFF_RATIO)));
+            }
+        } else if (inFlightBefore * 2 >= limit.get() && ThreadLocalRandom.current().nextInt(limit.get()) == 0) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    private long updateBaseline(long latencyNanos, long now) {
+        long since = baselineSince.get();
+        if (now - since >= baselineWindowNanos && baselineSince.compareAndSet(since, now)) {
+            baseline.set(latencyNanos);
+            return latencyNanos;
+        }
+        return baseline.accumulateAndGet(latencyNanos, Math::min);
+    }
+}
@@ -0,0 +1,220 @@
+package jp.co.axa.api.demo.controllers.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.co.axa.api.demo.configuration.AdmissionControlProperties;
+import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static jp.co.axa.api.demo.configuration.BulkheadConfiguration.BULK;
+import static jp.co.axa.api.demo.configuration.BulkheadConfiguration.READ;
+import static jp.co.axa.api.demo.configuration.BulkheadConfiguration.WRITE;
+import static jp.co.axa.api.demo.configuration.SecurityConfiguration.EMPLOYEE_API_PATH;
+
+/**
+ * Admission control of employee requests, after authentication so requests are known by principal.
+ * <p>
+ * Every principal has a token bucket per endpoint class, the same {@code read}, {@code write} and {@code bulk}
+ * classes as the bulkheads. An empty bucket answers {@code 429} with the seconds until the next permit.
+ * <p>
+ * Requests in flight of every endpoint class are bounded by an {@link AdaptiveConcurrencyLimit}, which shrinks when
+ * their latency grows. Requests over the limit are answered {@code 503} straight away instead of queueing.
+ * Streams count as in flight, but their duration is not taken as a latency.
+ * <p>
+ * Rejections are counted in {@code admission.rejected{endpoint,reason}}, the limits and the requests in flight are
+ * the {@code admission.concurrency.limit{endpoint}} and {@code admission.inflight{endpoint}} gauges.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    static final String RATE_LIMITED = "rate_limit";
+    static final String OVER_CONCURRENCY_LIMIT = "concurrency_limit";
+
+    private static final String EXCEPTION_PREFIX = "Following Exception Occurred : ";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final RequestMatcher EMPLOYEE_API = new AntPathRequestMatcher(EMPLOYEE_API_PATH + "/**");
+    private static final RequestMatcher BULK_INSERT = new AntPathRequestMatcher(EMPLOYEE_API_PATH + "/bulk", HttpMethod.POST.name());
+    private static final RequestMatcher SINGLE_READ = new AntPathRequestMatcher(EMPLOYEE_API_PATH + "/{path:.+}",
+            HttpMethod.GET.name());
+    private static final RequestMatcher SEARCH = new AntPathRequestMatcher(EMPLOYEE_API_PATH + "/search", HttpMethod.GET.name());
+    private static final RequestMatcher STREAM = new AntPathRequestMatcher(EMPLOYEE_API_PATH + "/stream", HttpMethod.GET.name());
+
+    private final Map<String, AdmissionControlProperties.RateSpec> rates;
+
+    private final Cache buckets;
+
+    private final Map<String, AdaptiveConcurrencyLimit> concurrencyLimits = new HashMap<>();
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Counter> rejections = new HashMap<>();
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, Cache buckets, MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper) {
+        this.rates = properties.getRates();
+        this.buckets = buckets;
+        this.objectMapper = objectMapper;
+        AdmissionControlProperties.ConcurrencySpec concurrency = properties.getConcurrency();
+        for (String endpoint : new String[]{READ, WRITE, BULK}) {
+            AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(concurrency.getInitialLimit(),
+                    concurrency.getMinLimit(), concurrency.getMaxLimit(), concurrency.getTolerance(),
+                    concurrency.getMinLatencyThreshold(), concurrency.getBaselineWindow());
+            concurrencyLimits.put(endpoint, concurrencyLimit);
+            Gauge.builder("admission.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("endpoint", endpoint).register(meterRegistry);
+            Gauge.builder("admission.inflight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("endpoint", endpoint).register(meterRegistry);
+            for (String reason : new String[]{RATE_LIMITED, OVER_CONCURRENCY_LIMIT}) {
+                rejections.put(endpoint + reason, Counter.builder("admission.rejected")
+                        .tag("endpoint", endpoint).tag("reason", reason).register(meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !EMPLOYEE_API.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String endpoint = endpointClass(request);
+        String principal = principal(request);
+        TokenBucket bucket = buckets.get(principal + ':' + endpoint, () -> newBucket(endpoint));
+        long waitNanos = bucket.tryAcquire();
+        if (waitNanos > 0) {
+            long retryAfter = (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, endpoint, RATE_LIMITED,
+                    "Too many " + endpoint + " requests of " + principal + ", try again later.");
+            return;
+        }
+        AdaptiveConcurrencyLimit concurrencyLimit = concurrencyLimits.get(endpoint);
+        if (!concurrencyLimit.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, endpoint, OVER_CONCURRENCY_LIMIT,
+                    "Too many requests in progress, try again later.");
+            return;
+        }
+        Release release = new Release(concurrencyLimit, STREAM.matches(request));
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                //handlers answer on the bulkheads, the request is in flight until the async response is complete
+                request.getAsyncContext().addListener(release);
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                release.run();
+            }
+        }
+    }
+
+    AdaptiveConcurrencyLimit getConcurrencyLimit(String endpoint) {
+        return concurrencyLimits.get(endpoint);
+    }
+
+    private static String endpointClass(HttpServletRequest request) {
+        if (BULK_INSERT.matches(request) || SEARCH.matches(request) || STREAM.matches(request)) {
+            return BULK;
+        }
+        if (SINGLE_READ.matches(request)) {
+            return READ;
+        }
+        return HttpMethod.GET.matches(request.getMethod()) ? BULK : WRITE;
+    }
+
+    private static String principal(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return "anonymous@" + request.getRemoteAddr();
+        }
+        return authentication.getName();
+    }
+
+    private TokenBucket newBucket(String endpoint) {
+        AdmissionControlProperties.RateSpec rate = rates.getOrDefault(endpoint, new AdmissionControlProperties.RateSpec());
+        return new TokenBucket(rate.getPermitsPerSecond(), rate.getBurst());
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String endpoint,
+                        String reason, String message) throws IOException {
+        rejections.get(endpoint + reason).increment();
+        log.debug("Request rejected: {}", message);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new VoidResponseDTO(EXCEPTION_PREFIX + message));
+    }
+
+    /**
+     * Ends an admitted request, when the filter chain returns or, for async requests, once the response is complete.
+     */
+    private static class Release implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+        private final boolean stream;
+
+        private final long start = System.nanoTime();
+
+        private Release(AdaptiveConcurrencyLimit concurrencyLimit, boolean stream) {
+            this.concurrencyLimit = concurrencyLimit;
+            this.stream = stream;
+        }
+
+        void run() {
+            if (stream) {
+                concurrencyLimit.release();
+            } else {
+                concurrencyLimit.release(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Also called after a timeout or an error, once the response is complete.
+         */
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
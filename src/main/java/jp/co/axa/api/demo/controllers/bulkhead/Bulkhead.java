@@ -0,0 +1,117 @@
+package jp.co.axa.api.demo.controllers.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jp.co.axa.api.demo.exceptions.BulkheadException;
+import lombok.Getter;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool for one kind of operation, so a burst of slow operations cannot take the threads of the others.
+ * <p>
+ * A task is rejected straight away when every thread is busy and the queue is full, and fails when it has not
+ * finished within the timeout, both with {@link BulkheadException}. A task still queued at its timeout is not run.
+ * The timeouts are scheduled on one timer thread of the bulkhead and cancelled as soon as the task completes, so
+ * finished tasks leave no pending timer behind.
+ * <p>
+ * Tasks are wrapped by the {@link TaskDecorator}, e.g. to carry state of the request thread to the pool thread.
+ */
+public class Bulkhead {
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final ThreadPoolExecutor executor;
+
+    @Getter
+    private final ScheduledThreadPoolExecutor timeouts;
+
+    private final Duration timeout;
+
+    @Getter
+    private final TaskDecorator taskDecorator;
+
+    private final Counter rejected;
+
+    private final Counter timedOut;
+
+    public Bulkhead(String name, int threads, int queueCapacity, Duration timeout, MeterRegistry meterRegistry) {
+        this(name, threads, queueCapacity, timeout, meterRegistry, task -> task);
+    }
+
+    public Bulkhead(String name, int threads, int queueCapacity, Duration timeout, MeterRegistry meterRegistry,
+                    TaskDecorator taskDecorator) {
+        this.name = name;
+        this.timeout = timeout;
+        this.taskDecorator = taskDecorator;
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue,
+                new CustomizableThreadFactory(name + "-bulkhead-"));
+        executor.allowCoreThreadTimeOut(true);
+        CustomizableThreadFactory timerThreadFactory = new CustomizableThreadFactory(name + "-bulkhead-timeout-");
+        timerThreadFactory.setDaemon(true);
+        this.timeouts = new ScheduledThreadPoolExecutor(1, timerThreadFactory);
+        //cancelled timeouts leave the queue right away instead of when they would have run
+        timeouts.setRemoveOnCancelPolicy(true);
+        new ExecutorServiceMetrics(executor, name + "Bulkhead", Tags.empty()).bindTo(meterRegistry);
+        this.rejected = Counter.builder("bulkhead.shed").tag("bulkhead", name).tag("reason", "full").register(meterRegistry);
+        this.timedOut = Counter.builder("bulkhead.shed").tag("bulkhead", name).tag("reason", "timeout").register(meterRegistry);
+    }
+
+    /**
+     * Runs the task on this bulkhead.
+     *
+     * @return the result of the task, or a future failed with {@link BulkheadException} when the task was shed
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running;
+        try {
+            running = executor.submit(taskDecorator.decorate(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new BulkheadException("Too many " + name + " requests, try again later."));
+            return result;
+        }
+        ScheduledFuture<?> timer = timeouts.schedule(() -> {
+            if (result.completeExceptionally(new BulkheadException("The " + name + " request did not finish in time."))) {
+                timedOut.increment();
+                //not interrupted, a running task finishes its transaction, a queued one is dropped
+                running.cancel(false);
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((value, failure) -> timer.cancel(false));
+        return result;
+    }
+
+    /**
+     * Destroy method of the bulkhead beans, running tasks are finished.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        timeouts.shutdownNow();
+    }
+}
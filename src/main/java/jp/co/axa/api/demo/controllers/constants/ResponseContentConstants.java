@@ -3,4 +3,7 @@ package jp.co.axa.api.demo.controllers.constants;
 public class ResponseContentConstants {
     public static final String BAD_REQUEST = "Bad Request";
     public static final String INTERNAL_SERVER_ERROR = "Internal Server Error";
+    public static final String NOT_FOUND = "Not Found, no employee of this id";
+    public static final String NOT_MODIFIED = "Not Modified";
+    public static final String SERVICE_UNAVAILABLE = "Service Unavailable, too many requests of the same kind";
 }
@@ -1,9 +1,14 @@
 package jp.co.axa.api.demo.controllers.controlleradvice;
 
 import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
+import jp.co.axa.api.demo.exceptions.BulkheadException;
 import jp.co.axa.api.demo.exceptions.EmployeeAPIException;
+import jp.co.axa.api.demo.exceptions.EmployeeNotFoundException;
+import jp.co.axa.api.demo.exceptions.InvalidRequestException;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
@@ -21,13 +26,40 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Maps exceptions to responses. Expected outcomes, missing employees, invalid parameters and shed requests, are
+ * logged without a stack trace; errors are logged with theirs, but sampled so an error storm cannot overwhelm the
+ * log appenders.
+ */
 @Slf4j
 @ControllerAdvice
+@Profile("!reactive")
 public class ApplicationExceptionHandler extends ResponseEntityExceptionHandler {
 
     private static final String EXCEPTION_PREFIX = "Following Exception Occurred : ";
     private static final String MALFORMED_REQUEST_PREFIX = "Malformed Request : ";
     private static final String INVALID_FIELDS_PREFIX = "Invalid Fields:";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final double LOGGED_ERRORS_PER_SECOND = 10;
+    private static final int LOGGED_ERRORS_BURST = 50;
+
+    private final SampledErrorLog errorLog = new SampledErrorLog(log, LOGGED_ERRORS_PER_SECOND, LOGGED_ERRORS_BURST);
+
+    @ExceptionHandler(EmployeeNotFoundException.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ResponseEntity<VoidResponseDTO> employeeNotFoundException(EmployeeNotFoundException exception, WebRequest req) {
+        log.debug("Not found: {} {}", req.getDescription(false), exception.getMessage());
+        VoidResponseDTO failureResponse = new VoidResponseDTO(EXCEPTION_PREFIX + exception.getMessage());
+        return new ResponseEntity<>(failureResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ResponseEntity<VoidResponseDTO> invalidRequestException(InvalidRequestException exception, WebRequest req) {
+        log.debug("Invalid request: {} {}", req.getDescription(false), exception.getMessage());
+        VoidResponseDTO failureResponse = new VoidResponseDTO(MALFORMED_REQUEST_PREFIX + exception.getMessage());
+        return new ResponseEntity<>(failureResponse, HttpStatus.BAD_REQUEST);
+    }
 
     @ExceptionHandler(EmployeeAPIException.class)
     @Order(Ordered.HIGHEST_PRECEDENCE)
@@ -38,8 +70,7 @@ public class ApplicationExceptionHandler extends ResponseEntityExceptionHandler
     }
 
     private void logException(Throwable exception, WebRequest req) {
-        log.error("Exception For Request: {}", req.getDescription(false));
-        log.error(EXCEPTION_PREFIX, exception);
+        errorLog.error(req.getDescription(false), exception);
     }
 
     @Override
@@ -60,6 +91,19 @@ public class ApplicationExceptionHandler extends ResponseEntityExceptionHandler
         return new ResponseEntity<>(failureResponse, status);
     }
 
+    /**
+     * Requests shed by a bulkhead are expected under load. They come all at once when the application is
+     * overloaded, so they are logged at debug only, the {@code bulkhead.shed} counter tells how many there are.
+     */
+    @ExceptionHandler({BulkheadException.class, TaskRejectedException.class})
+    public ResponseEntity<VoidResponseDTO> bulkheadException(RuntimeException exception, WebRequest req) {
+        log.debug("Request shed: {} {}", req.getDescription(false), exception.getMessage());
+        VoidResponseDTO failureResponse = new VoidResponseDTO(EXCEPTION_PREFIX + exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(failureResponse);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<VoidResponseDTO> globalException(AccessDeniedException exception, WebRequest req) {
         logException(exception, req);
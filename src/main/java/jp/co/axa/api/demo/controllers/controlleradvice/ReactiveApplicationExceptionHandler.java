@@ -0,0 +1,78 @@
+package jp.co.axa.api.demo.controllers.controlleradvice;
+
+import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
+import jp.co.axa.api.demo.exceptions.EmployeeAPIException;
+import jp.co.axa.api.demo.exceptions.EmployeeNotFoundException;
+import jp.co.axa.api.demo.exceptions.InvalidRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.stream.Collectors;
+
+/**
+ * Same responses as {@link ApplicationExceptionHandler}, for the webflux stack of the {@code reactive} profile.
+ */
+@Slf4j
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveApplicationExceptionHandler {
+
+    private static final String EXCEPTION_PREFIX = "Following Exception Occurred : ";
+    private static final String MALFORMED_REQUEST_PREFIX = "Malformed Request : ";
+    private static final String INVALID_FIELDS_PREFIX = "Invalid Fields:";
+    private static final double LOGGED_ERRORS_PER_SECOND = 10;
+    private static final int LOGGED_ERRORS_BURST = 50;
+
+    private final SampledErrorLog errorLog = new SampledErrorLog(log, LOGGED_ERRORS_PER_SECOND, LOGGED_ERRORS_BURST);
+
+    @ExceptionHandler(EmployeeNotFoundException.class)
+    public ResponseEntity<VoidResponseDTO> employeeNotFoundException(EmployeeNotFoundException exception, ServerWebExchange exchange) {
+        log.debug("Not found: {} {}", exchange.getRequest().getURI().getPath(), exception.getMessage());
+        return new ResponseEntity<>(new VoidResponseDTO(EXCEPTION_PREFIX + exception.getMessage()), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<VoidResponseDTO> invalidRequestException(InvalidRequestException exception, ServerWebExchange exchange) {
+        log.debug("Invalid request: {} {}", exchange.getRequest().getURI().getPath(), exception.getMessage());
+        return new ResponseEntity<>(new VoidResponseDTO(MALFORMED_REQUEST_PREFIX + exception.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(EmployeeAPIException.class)
+    public ResponseEntity<VoidResponseDTO> employeeAPIException(EmployeeAPIException exception, ServerWebExchange exchange) {
+        logException(exception, exchange);
+        return new ResponseEntity<>(new VoidResponseDTO(EXCEPTION_PREFIX + exception.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<VoidResponseDTO> bindException(WebExchangeBindException exception, ServerWebExchange exchange) {
+        logException(exception, exchange);
+        String invalidFields = exception.getFieldErrors().stream().map(FieldError::getField).collect(Collectors.joining(","));
+        return new ResponseEntity<>(new VoidResponseDTO(MALFORMED_REQUEST_PREFIX + INVALID_FIELDS_PREFIX + invalidFields),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<VoidResponseDTO> inputException(ServerWebInputException exception, ServerWebExchange exchange) {
+        logException(exception, exchange);
+        return new ResponseEntity<>(new VoidResponseDTO(MALFORMED_REQUEST_PREFIX + exception.getReason()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(Throwable.class)
+    public ResponseEntity<VoidResponseDTO> globalException(Throwable exception, ServerWebExchange exchange) {
+        logException(exception, exchange);
+        return new ResponseEntity<>(new VoidResponseDTO(EXCEPTION_PREFIX + exception.getLocalizedMessage()),
+                HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private void logException(Throwable exception, ServerWebExchange exchange) {
+        errorLog.error(exchange.getRequest().getURI().getPath(), exception);
+    }
+}
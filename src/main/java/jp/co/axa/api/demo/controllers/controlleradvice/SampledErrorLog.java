@@ -0,0 +1,40 @@
+package jp.co.axa.api.demo.controllers.controlleradvice;
+
+import jp.co.axa.api.demo.controllers.admission.TokenBucket;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Error logging that an error storm cannot turn into a logging storm.
+ * A token bucket lets a few errors a second through with their stack trace, the others are only counted,
+ * and that count is logged with the next error let through.
+ */
+class SampledErrorLog {
+
+    private final Logger log;
+
+    private final TokenBucket permits;
+
+    private final LongAdder suppressed = new LongAdder();
+
+    SampledErrorLog(Logger log, double errorsPerSecond, int burst) {
+        this.log = log;
+        this.permits = new TokenBucket(errorsPerSecond, burst);
+    }
+
+    void error(String request, Throwable exception) {
+        if (!log.isErrorEnabled()) {
+            return;
+        }
+        if (permits.tryAcquire() > 0) {
+            suppressed.increment();
+            return;
+        }
+        long skipped = suppressed.sumThenReset();
+        if (skipped > 0) {
+            log.error("{} more exceptions were not logged", skipped);
+        }
+        log.error("Exception For Request: {}", request, exception);
+    }
+}
@@ -0,0 +1,96 @@
+package jp.co.axa.api.demo.controllers.converters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import org.springframework.cache.Cache;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Writes a single employee from bytes encoded once per version and content type, kept in a cache.
+ * A cache hit copies the bytes to the response, the DTO is not serialized again.
+ * <p>
+ * The version of the employee is part of the cache entry, bytes of an older version are never written.
+ * Every new body puts the entry again, so it is weighed with all of its bodies.
+ * Only writes {@link EmployeeDTO} itself, request bodies and other responses go to the usual converters.
+ */
+public class CachedEmployeeHttpMessageConverter extends AbstractHttpMessageConverter<EmployeeDTO> {
+
+    private final Cache bodyCache;
+    private final Map<MediaType, ObjectMapper> objectMappers;
+
+    /**
+     * @param bodyCache     cache of {@link EncodedEmployee} by employee id
+     * @param objectMappers mapper of every supported content type, the first one is used when the client accepts any
+     */
+    public CachedEmployeeHttpMessageConverter(Cache bodyCache, Map<MediaType, ObjectMapper> objectMappers) {
+        super(objectMappers.keySet().toArray(new MediaType[0]));
+        this.bodyCache = bodyCache;
+        this.objectMappers = objectMappers;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EmployeeDTO.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EmployeeDTO readInternal(Class<? extends EmployeeDTO> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Only writes employees.", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(EmployeeDTO employee, MediaType contentType) {
+        return (long) body(employee, contentType).length;
+    }
+
+    @Override
+    protected void writeInternal(EmployeeDTO employee, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(body(employee, outputMessage.getHeaders().getContentType()));
+    }
+
+    private byte[] body(EmployeeDTO employee, MediaType contentType) {
+        MediaType type = new MediaType(contentType.getType(), contentType.getSubtype());
+        if (employee.getId() == null || employee.getVersion() == null) {
+            return encode(employee, type);
+        }
+        EncodedEmployee encoded = bodyCache.get(employee.getId(), EncodedEmployee.class);
+        if (encoded == null || !employee.getVersion().equals(encoded.getVersion())) {
+            encoded = new EncodedEmployee(employee.getVersion());
+        }
+        byte[] body = encoded.body(type.toString());
+        if (body == null) {
+            body = encode(employee, type);
+            //put again so the cache weighs the entry with its new body
+            bodyCache.put(employee.getId(), encoded.withBody(type.toString(), body));
+        }
+        return body;
+    }
+
+    private byte[] encode(EmployeeDTO employee, MediaType type) {
+        ObjectMapper objectMapper = objectMappers.get(type);
+        if (objectMapper == null) {
+            throw new HttpMessageNotWritableException("No encoding for " + type + ", supported : "
+                    + new ArrayList<>(objectMappers.keySet()));
+        }
+        try {
+            return objectMapper.writeValueAsBytes(employee);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write employee : " + e.getOriginalMessage(), e);
+        }
+    }
+}
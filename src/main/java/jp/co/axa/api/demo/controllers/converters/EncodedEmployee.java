@@ -0,0 +1,53 @@
+package jp.co.axa.api.demo.controllers.converters;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Response bodies of one version of an employee, one per content type.
+ * <p>
+ * Immutable, a new body gives a new instance to put in the cache again: caffeine weighs an entry when it is put,
+ * a body added to the cached instance would never count against the maximum weight.
+ */
+public class EncodedEmployee {
+
+    @Getter
+    private final Long version;
+
+    private final Map<String, byte[]> bodies;
+
+    private final int size;
+
+    public EncodedEmployee(Long version) {
+        this(version, Collections.emptyMap());
+    }
+
+    private EncodedEmployee(Long version, Map<String, byte[]> bodies) {
+        this.version = version;
+        this.bodies = bodies;
+        this.size = bodies.values().stream().mapToInt(body -> body.length).sum();
+    }
+
+    /**
+     * @return the body of the content type, null if it was not encoded yet
+     */
+    public byte[] body(String contentType) {
+        return bodies.get(contentType);
+    }
+
+    public EncodedEmployee withBody(String contentType, byte[] body) {
+        Map<String, byte[]> withBody = new HashMap<>(bodies);
+        withBody.put(contentType, body);
+        return new EncodedEmployee(version, Collections.unmodifiableMap(withBody));
+    }
+
+    /**
+     * Bytes held by the bodies, for the cache weigher.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,34 @@
+package jp.co.axa.api.demo.controllers.diagnostics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate session events of the request that opened the session, added to its {@link RequestDiagnostics}.
+ * <p>
+ * Created by hibernate for every session, from {@code hibernate.session.events.auto} of the {@code diagnostics}
+ * profile. Sessions opened outside of api requests are not recorded.
+ */
+public class HibernateSessionDiagnostics extends BaseSessionEventListener {
+
+    private final RequestDiagnostics diagnostics = RequestDiagnostics.current();
+
+    public HibernateSessionDiagnostics() {
+        if (diagnostics != null) {
+            diagnostics.sessionOpened();
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        if (diagnostics != null) {
+            diagnostics.connectionAcquired();
+        }
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        if (diagnostics != null) {
+            diagnostics.flushed(numberOfEntities);
+        }
+    }
+}
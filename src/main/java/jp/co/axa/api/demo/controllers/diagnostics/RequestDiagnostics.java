@@ -0,0 +1,155 @@
+package jp.co.axa.api.demo.controllers.diagnostics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import net.ttddyy.dsproxy.QueryType;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sql statements and hibernate session events of one api request.
+ * <p>
+ * Bound to the thread serving the request by {@link RequestDiagnosticsFilter}, and to the bulkhead thread running
+ * its handler by {@link #propagate(Runnable)}. Updated by one thread at a time, but read by the
+ * {@code sqldiagnostics} endpoint while a timed out handler may still run, hence synchronized.
+ */
+@Getter
+public class RequestDiagnostics {
+
+    private static final ThreadLocal<RequestDiagnostics> CURRENT = new ThreadLocal<>();
+
+    private final String request;
+
+    private final Instant start = Instant.now();
+
+    @Getter(AccessLevel.NONE)
+    private final long startNanos = System.nanoTime();
+
+    private String handler;
+
+    private int status;
+
+    private long durationMillis;
+
+    private int statementBudget;
+
+    /**
+     * Statement executions, a batch counts once.
+     */
+    private int statements;
+
+    private int selects;
+
+    private int inserts;
+
+    private int updates;
+
+    private int deletes;
+
+    private int others;
+
+    private int batches;
+
+    /**
+     * Rows sent in batches.
+     */
+    private int batchedRows;
+
+    private long jdbcMillis;
+
+    private int hibernateSessions;
+
+    private int connections;
+
+    private int flushes;
+
+    private int flushedEntities;
+
+    RequestDiagnostics(String request) {
+        this.request = request;
+    }
+
+    /**
+     * The request the current thread works for, null outside of api requests.
+     */
+    public static RequestDiagnostics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Task decorator of the bulkheads, the task records into the request that submitted it.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestDiagnostics diagnostics = current();
+        if (diagnostics == null) {
+            return task;
+        }
+        return () -> {
+            RequestDiagnostics previous = CURRENT.get();
+            CURRENT.set(diagnostics);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    static void bind(RequestDiagnostics diagnostics) {
+        CURRENT.set(diagnostics);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    synchronized void statement(QueryType type, int batchSize, long elapsedMillis) {
+        statements++;
+        jdbcMillis += elapsedMillis;
+        if (batchSize > 0) {
+            batches++;
+            batchedRows += batchSize;
+        }
+        switch (type) {
+            case SELECT:
+                selects++;
+                break;
+            case INSERT:
+                inserts++;
+                break;
+            case UPDATE:
+                updates++;
+                break;
+            case DELETE:
+                deletes++;
+                break;
+            default:
+                others++;
+        }
+    }
+
+    synchronized void sessionOpened() {
+        hibernateSessions++;
+    }
+
+    synchronized void connectionAcquired() {
+        connections++;
+    }
+
+    synchronized void flushed(int entities) {
+        flushes++;
+        flushedEntities += entities;
+    }
+
+    synchronized void finish(String handler, int status, int statementBudget) {
+        this.handler = handler;
+        this.status = status;
+        this.statementBudget = statementBudget;
+        this.durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public synchronized boolean isOverBudget() {
+        return statements > statementBudget;
+    }
+}
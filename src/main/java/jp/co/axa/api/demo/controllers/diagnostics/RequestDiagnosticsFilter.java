@@ -0,0 +1,108 @@
+package jp.co.axa.api.demo.controllers.diagnostics;
+
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static jp.co.axa.api.demo.configuration.SecurityConfiguration.EMPLOYEE_API_PATH;
+
+/**
+ * Records the sql statements of every employee request in a {@link RequestDiagnostics}, handed to
+ * {@link SqlDiagnostics} once the response is complete, after the async dispatch for handlers answering on the
+ * bulkheads.
+ */
+public class RequestDiagnosticsFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher EMPLOYEE_API = new AntPathRequestMatcher(EMPLOYEE_API_PATH + "/**");
+
+    private static final String NO_HANDLER = "none";
+
+    private final SqlDiagnostics sqlDiagnostics;
+
+    public RequestDiagnosticsFilter(SqlDiagnostics sqlDiagnostics) {
+        this.sqlDiagnostics = sqlDiagnostics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !EMPLOYEE_API.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String query = request.getQueryString();
+        RequestDiagnostics diagnostics = new RequestDiagnostics(request.getMethod() + ' ' + request.getRequestURI()
+                + (query == null ? "" : '?' + query));
+        Finish finish = new Finish(diagnostics, request, response);
+        RequestDiagnostics.bind(diagnostics);
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(finish);
+                async = true;
+            }
+        } finally {
+            RequestDiagnostics.unbind();
+            if (!async) {
+                finish.run();
+            }
+        }
+    }
+
+    /**
+     * Ends a request, when the filter chain returns or, for async requests, once the response is complete.
+     */
+    private class Finish implements AsyncListener {
+
+        private final RequestDiagnostics diagnostics;
+
+        private final HttpServletRequest request;
+
+        private final HttpServletResponse response;
+
+        private Finish(RequestDiagnostics diagnostics, HttpServletRequest request, HttpServletResponse response) {
+            this.diagnostics = diagnostics;
+            this.request = request;
+            this.response = response;
+        }
+
+        void run() {
+            Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+            sqlDiagnostics.finish(diagnostics,
+                    handler instanceof HandlerMethod ? ((HandlerMethod) handler).getMethod().getName() : NO_HANDLER,
+                    response.getStatus());
+        }
+
+        /**
+         * Also called after a timeout or an error, once the response is complete.
+         */
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package jp.co.axa.api.demo.controllers.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.co.axa.api.demo.configuration.DiagnosticsProperties;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Statements of the proxied datasource, counted into the {@link RequestDiagnostics} of the current request.
+ * <p>
+ * Statements over {@code api.demo.diagnostics.slow-query-threshold} are logged at warn with their bind parameters,
+ * requests over their statement budget are logged at warn and counted in {@code sql.requests.over.budget{handler}}.
+ * The last {@code api.demo.diagnostics.retained} of each are kept for the {@code sqldiagnostics} endpoint,
+ * with the last finished requests.
+ * <p>
+ * Hibernate logs slow queries on its own with {@code hibernate.session.events.log.LOG_QUERIES_SLOWER_THAN_MS},
+ * but only its own queries and without the request they ran for. Listening at the datasource also sees the
+ * {@code JdbcTemplate} statements and counts every statement into its request, which the statement budgets need.
+ */
+@Slf4j
+public class SqlDiagnostics implements QueryExecutionListener {
+
+    private final DiagnosticsProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+    private final Retained<RequestDiagnostics> requests;
+
+    private final Retained<RequestDiagnostics> overBudget;
+
+    private final Retained<SlowQuery> slowQueries;
+
+    public SqlDiagnostics(DiagnosticsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.requests = new Retained<>(properties.getRetained());
+        this.overBudget = new Retained<>(properties.getRetained());
+        this.slowQueries = new Retained<>(properties.getRetained());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestDiagnostics diagnostics = RequestDiagnostics.current();
+        if (diagnostics != null && !queryInfoList.isEmpty()) {
+            diagnostics.statement(QueryUtils.getQueryType(queryInfoList.get(0).getQuery()),
+                    execInfo.isBatch() ? execInfo.getBatchSize() : 0, execInfo.getElapsedTime());
+        }
+        if (execInfo.getElapsedTime() >= properties.getSlowQueryThreshold().toMillis()) {
+            String request = diagnostics == null ? null : diagnostics.getRequest();
+            String statement = logEntryCreator.getLogEntry(execInfo, queryInfoList, false, false, false);
+            log.warn("Slow statement of request {}: {}", request, statement);
+            slowQueries.add(new SlowQuery(Instant.now(), request, execInfo.getElapsedTime(), statement));
+        }
+    }
+
+    /**
+     * Ends the request, once its response is complete.
+     */
+    void finish(RequestDiagnostics diagnostics, String handler, int status) {
+        diagnostics.finish(handler, status, properties.statementBudget(handler));
+        requests.add(diagnostics);
+        if (diagnostics.isOverBudget()) {
+            log.warn("Request {} ({}) ran {} statements, over its budget of {}", diagnostics.getRequest(), handler,
+                    diagnostics.getStatements(), diagnostics.getStatementBudget());
+            meterRegistry.counter("sql.requests.over.budget", "handler", handler).increment();
+            overBudget.add(diagnostics);
+        }
+    }
+
+    /**
+     * Last finished requests, newest first.
+     */
+    public List<RequestDiagnostics> getRequests() {
+        return requests.list();
+    }
+
+    /**
+     * Last requests over their statement budget, newest first.
+     */
+    public List<RequestDiagnostics> getOverBudget() {
+        return overBudget.list();
+    }
+
+    /**
+     * Last slow statements, newest first.
+     */
+    public List<SlowQuery> getSlowQueries() {
+        return slowQueries.list();
+    }
+
+    public void clear() {
+        requests.clear();
+        overBudget.clear();
+        slowQueries.clear();
+    }
+
+    @Value
+    public static class SlowQuery {
+
+        Instant time;
+
+        String request;
+
+        long elapsedMillis;
+
+        /**
+         * The statement with its bind parameters, as logged.
+         */
+        String statement;
+    }
+
+    /**
+     * The last few elements added.
+     */
+    private static class Retained<T> {
+
+        private final int capacity;
+
+        private final Deque<T> elements = new ArrayDeque<>();
+
+        private Retained(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void add(T element) {
+            if (capacity <= 0) {
+                return;
+            }
+            if (elements.size() == capacity) {
+                elements.removeLast();
+            }
+            elements.addFirst(element);
+        }
+
+        synchronized List<T> list() {
+            return new ArrayList<>(elements);
+        }
+
+        synchronized void clear() {
+            elements.clear();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package jp.co.axa.api.demo.controllers.diagnostics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/sqldiagnostics}, admin only like every actuator endpoint but health.
+ * <p>
+ * Reading it gives the last requests with their statements, the requests over budget, the slow statements with
+ * their bind parameters and the statistics of the hibernate session factory since startup. Deleting it starts over.
+ */
+@Endpoint(id = "sqldiagnostics")
+public class SqlDiagnosticsEndpoint {
+
+    private final SqlDiagnostics sqlDiagnostics;
+
+    private final Statistics statistics;
+
+    public SqlDiagnosticsEndpoint(SqlDiagnostics sqlDiagnostics, EntityManagerFactory entityManagerFactory) {
+        this.sqlDiagnostics = sqlDiagnostics;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> diagnostics() {
+        Map<String, Object> diagnostics = new LinkedHashMap<>();
+        diagnostics.put("hibernate", hibernateStatistics());
+        diagnostics.put("slowQueries", sqlDiagnostics.getSlowQueries());
+        diagnostics.put("overBudget", sqlDiagnostics.getOverBudget());
+        diagnostics.put("requests", sqlDiagnostics.getRequests());
+        return diagnostics;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        sqlDiagnostics.clear();
+        statistics.clear();
+    }
+
+    private Map<String, Object> hibernateStatistics() {
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("enabled", statistics.isStatisticsEnabled());
+        hibernate.put("sessionsOpened", statistics.getSessionOpenCount());
+        hibernate.put("transactions", statistics.getTransactionCount());
+        hibernate.put("connections", statistics.getConnectCount());
+        hibernate.put("preparedStatements", statistics.getPrepareStatementCount());
+        hibernate.put("flushes", statistics.getFlushCount());
+        hibernate.put("entitiesLoaded", statistics.getEntityLoadCount());
+        hibernate.put("entitiesFetched", statistics.getEntityFetchCount());
+        hibernate.put("entitiesInserted", statistics.getEntityInsertCount());
+        hibernate.put("entitiesUpdated", statistics.getEntityUpdateCount());
+        hibernate.put("entitiesDeleted", statistics.getEntityDeleteCount());
+        hibernate.put("queriesExecuted", statistics.getQueryExecutionCount());
+        hibernate.put("slowestQueryMillis", statistics.getQueryExecutionMaxTime());
+        hibernate.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        hibernate.put("queryPlanCacheHits", statistics.getQueryPlanCacheHitCount());
+        hibernate.put("queryPlanCacheMisses", statistics.getQueryPlanCacheMissCount());
+        return hibernate;
+    }
+}
@@ -2,10 +2,30 @@ package jp.co.axa.api.demo.controllers.employees;
 
 import jp.co.axa.api.demo.dto.root.IRootDTO;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 public class BaseController {
 
+    /**
+     * Code of every representation of the employee resources, in the order of their converters.
+     */
+    private static final Map<MediaType, String> FORMATS = new LinkedHashMap<>();
+
+    static {
+        FORMATS.put(MediaType.APPLICATION_JSON, "json");
+        FORMATS.put(MediaType.parseMediaType(EmployeeController.APPLICATION_SMILE_VALUE), "smile");
+        FORMATS.put(MediaType.APPLICATION_CBOR, "cbor");
+    }
+
     protected <T extends IRootDTO> ResponseEntity<T> handleSuccess(T dto) {
         return handle(dto, HttpStatus.OK);
     }
@@ -13,4 +33,40 @@ public class BaseController {
     protected <T extends IRootDTO> ResponseEntity<T> handle(T dto, HttpStatus status) {
         return new ResponseEntity<>(dto, status);
     }
+
+    /**
+     * Strong ETag made of the given version parts, e.g. {@code "json-4-2"}. Starts with the {@link #format} of the
+     * response: every representation needs its own strong ETag, or the ETag of a JSON response would answer 304
+     * to a CBOR request.
+     */
+    protected static String eTag(Object... versionParts) {
+        return Arrays.stream(versionParts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Code of the representation negotiated for the Accept header, JSON when it accepts anything or none of them.
+     */
+    protected static String format(List<MediaType> accepted) {
+        List<MediaType> byPreference = new ArrayList<>(accepted);
+        MediaType.sortBySpecificityAndQuality(byPreference);
+        for (MediaType mediaType : byPreference) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (Map.Entry<MediaType, String> format : FORMATS.entrySet()) {
+                if (mediaType.isCompatibleWith(format.getKey())) {
+                    return format.getValue();
+                }
+            }
+        }
+        return FORMATS.get(MediaType.APPLICATION_JSON);
+    }
+
+    protected static String format(String acceptHeader) {
+        try {
+            return format(MediaType.parseMediaTypes(acceptHeader));
+        } catch (InvalidMediaTypeException e) {
+            return FORMATS.get(MediaType.APPLICATION_JSON);
+        }
+    }
 }
@@ -1,70 +1,239 @@
 package jp.co.axa.api.demo.controllers.employees;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jp.co.axa.api.demo.controllers.bulkhead.Bulkhead;
 import jp.co.axa.api.demo.controllers.constants.ResponseContentConstants;
 import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
 import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
-import jp.co.axa.api.demo.exceptions.EmployeeAPIException;
 import jp.co.axa.api.demo.services.employee.EmployeeService;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @Slf4j
 @RequiredArgsConstructor
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1")
 @Api( tags = {"Employee Service"})
 @Tag(name = "Employee Service", description = "These services manage employees")
 public class EmployeeController extends BaseController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     @NonNull
     private final EmployeeService employeeService;
 
+    @NonNull
+    private final ObjectMapper objectMapper;
+
+    //handlers run on one of these instead of the servlet container thread, see BulkheadConfiguration
+    @NonNull
+    private final Bulkhead readBulkhead;
+
+    @NonNull
+    private final Bulkhead writeBulkhead;
+
+    @NonNull
+    private final Bulkhead bulkBulkhead;
+
     @Value("api.demo.profile")
     static String api;
 
-    @ApiOperation(value = "Get All Employees in the System.", produces = MediaType.APPLICATION_JSON_VALUE
-            , notes = "List of Employees in System", httpMethod = "GET", response = BulkEmployeeGetDTO.class)
+    @ApiOperation(value = "Get Employees in the System, one page at a time."
+            , produces = MediaType.APPLICATION_JSON_VALUE + ", " + APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_CBOR_VALUE
+            , notes = "Page of Employees ordered by id. Pass the returned nextCursor as 'after' to get the next page. "
+            + "'all=true' returns every employee in one response. "
+            + "Answers 304 when the ETag sent in If-None-Match is current, no employee was changed since."
+            , httpMethod = "GET", response = EmployeePageDTO.class)
     @ApiResponses(value = {
+            @ApiResponse(code = 304, message = ResponseContentConstants.NOT_MODIFIED),
+            @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
             @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
-                    response = BulkEmployeeGetDTO.class)})
+                    response = BulkEmployeeGetDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
     @GetMapping("/employees")
-    public ResponseEntity<BulkEmployeeGetDTO> getEmployees() {
-        log.debug("Controller : Getting All Employees");
-        return handleSuccess(employeeService.retrieveEmployees());
+    public CompletableFuture<ResponseEntity<BulkEmployeeGetDTO>> getEmployees(@RequestParam(name = "after", required = false) Long after,
+                                                                              @RequestParam(name = "limit", required = false) Integer limit,
+                                                                              @RequestParam(name = "all", defaultValue = "false") boolean all,
+                                                                              WebRequest webRequest) {
+        //sets the ETag, and the 304 status when it matches, before the database is touched or a thread is taken
+        if (webRequest.checkNotModified(eTag(format(webRequest.getHeader(HttpHeaders.ACCEPT)), employeeService.getEmployeesVersion()))) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return bulkBulkhead.submit(() -> {
+            if (all) {
+                log.debug("Controller : Getting All Employees");
+                return handleSuccess(employeeService.retrieveEmployees());
+            }
+            log.debug("Controller : Getting Employees after ID : {} with limit : {}", after, limit);
+            return handleSuccess(employeeService.retrieveEmployees(after, limit));
+        });
+    }
+
+    @ApiOperation(value = "Get only some fields of the Employees in the System, one page at a time."
+            , produces = MediaType.APPLICATION_JSON_VALUE + ", " + APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_CBOR_VALUE
+            , notes = "Page of Employees ordered by id, with only the comma separated 'fields' (id, name, salary, department) "
+            + "plus the id. Only those columns are read from the database. Paged like the full list."
+            , httpMethod = "GET", response = EmployeeFieldsPageDTO.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 304, message = ResponseContentConstants.NOT_MODIFIED),
+            @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
+            @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
+                    response = EmployeeFieldsPageDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
+    @GetMapping(value = "/employees", params = {"fields", "!ids"})
+    public CompletableFuture<ResponseEntity<EmployeeFieldsPageDTO>> getEmployeeFields(@RequestParam(name = "fields") List<String> fields,
+                                                                                      @RequestParam(name = "after", required = false) Long after,
+                                                                                      @RequestParam(name = "limit", required = false) Integer limit,
+                                                                                      WebRequest webRequest) {
+        if (webRequest.checkNotModified(eTag(format(webRequest.getHeader(HttpHeaders.ACCEPT)), employeeService.getEmployeesVersion()))) {
+            return CompletableFuture.completedFuture(null);
+        }
+        log.debug("Controller : Getting Employee fields {} after ID : {} with limit : {}", fields, after, limit);
+        return bulkBulkhead.submit(() -> handleSuccess(employeeService.retrieveEmployees(fields, after, limit)));
+    }
+
+    @ApiOperation(value = "Get many Employees by ID in one call."
+            , produces = MediaType.APPLICATION_JSON_VALUE + ", " + APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_CBOR_VALUE
+            , notes = "Employees of the given comma separated IDs, at most the maximum page size, in the order of the IDs. "
+            + "IDs with no employee are skipped."
+            , httpMethod = "GET", response = BulkEmployeeGetDTO.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
+            @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
+                    response = BulkEmployeeGetDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
+    @GetMapping(value = "/employees", params = "ids")
+    public CompletableFuture<ResponseEntity<BulkEmployeeGetDTO>> getEmployeesByIds(@RequestParam(name = "ids") List<Long> employeeIds) {
+        log.debug("Controller : Getting {} Employees by ID", employeeIds.size());
+        return bulkBulkhead.submit(() -> handleSuccess(employeeService.getEmployees(employeeIds)));
+    }
+
+    @ApiOperation(value = "Stream All Employees in the System.", produces = APPLICATION_NDJSON_VALUE
+            , notes = "Every Employee ordered by id, one JSON document per line, written while the table is read."
+            , httpMethod = "GET", response = EmployeeDTO.class, responseContainer = "List")
+    @ApiResponses(value = {
+            @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
+    @GetMapping(value = "/employees/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEmployees() {
+        log.debug("Controller : Streaming All Employees");
+        //flushing after every record would turn each line into its own write on the socket
+        ObjectWriter writer = objectMapper.writerFor(EmployeeDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+            try (generator) {
+                employeeService.streamEmployees(employee -> writeLine(writer, generator, employee));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    private void writeLine(ObjectWriter writer, JsonGenerator generator, EmployeeDTO employee) {
+        try {
+            writer.writeValue(generator, employee);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @ApiOperation(value = "Search Employees by department and salary range.", produces = MediaType.APPLICATION_JSON_VALUE
+            , notes = "Employees of the given department whose salary is within [minSalary, maxSalary]. "
+            + "Every filter is optional. Sorted by 'sort' in 'direction' order, at most 'limit' employees."
+            , httpMethod = "GET", response = BulkEmployeeGetDTO.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
+            @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
+                    response = BulkEmployeeGetDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
+    @GetMapping("/employees/search")
+    public CompletableFuture<ResponseEntity<BulkEmployeeGetDTO>> searchEmployees(@Valid EmployeeSearchDTO criteria) {
+        log.debug("Controller : Searching Employees with : {}", criteria);
+        return bulkBulkhead.submit(() -> handleSuccess(employeeService.searchEmployees(criteria)));
+    }
+
+    @ApiOperation(value = "Type-ahead search on Employee names.", produces = MediaType.APPLICATION_JSON_VALUE
+            , notes = "Id and name of the Employees whose name contains 'query', case insensitive. "
+            + "Names starting with the query come first. Queries shorter than three characters only match name prefixes."
+            , httpMethod = "GET", response = EmployeeNameSearchDTO.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
+            @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
+                    response = EmployeeNameSearchDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
+    @GetMapping("/employees/names")
+    public CompletableFuture<ResponseEntity<EmployeeNameSearchDTO>> searchEmployeeNames(@RequestParam(name = "query") String query,
+                                                                                        @RequestParam(name = "limit", required = false) Integer limit) {
+        log.debug("Controller : Searching Employee names with : {}", query);
+        return readBulkhead.submit(() -> handleSuccess(employeeService.searchEmployeeNames(query, limit)));
     }
 
     @ApiOperation(value = "Get Employee Information on the basis of ID"
-            , produces = MediaType.APPLICATION_JSON_VALUE
-            , notes = "Employee Information of given ID"
+            , produces = MediaType.APPLICATION_JSON_VALUE + ", " + APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_CBOR_VALUE
+            , notes = "Employee Information of given ID. "
+            + "Answers 304 when the ETag sent in If-None-Match is current, the employee was not changed since."
             , httpMethod = "GET"
             , response = EmployeeDTO.class)
     @ApiResponses(value = {
+            @ApiResponse(code = 304, message = ResponseContentConstants.NOT_MODIFIED),
             @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
+            @ApiResponse(code = 404, message = ResponseContentConstants.NOT_FOUND),
             @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
-                    response = EmployeeDTO.class)})
+                    response = EmployeeDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
     @GetMapping("/employees/{employeeId}")
-    public ResponseEntity<EmployeeDTO> getEmployee(@PathVariable(name = "employeeId") @Min(1) @Positive Long employeeId)
-            throws EmployeeAPIException {
+    public CompletableFuture<ResponseEntity<EmployeeDTO>> getEmployee(@PathVariable(name = "employeeId") @Min(1) @Positive Long employeeId,
+                                                                      WebRequest webRequest) {
         log.debug("Controller : Getting Employee of the following ID : {}", employeeId);
-        return handleSuccess(employeeService.getEmployee(employeeId));
+        return readBulkhead.submit(() -> {
+            //usually answered from the employee cache, a 304 then neither reads the database nor writes a body
+            EmployeeDTO employee = employeeService.getEmployee(employeeId);
+            if (webRequest.checkNotModified(eTag(format(webRequest.getHeader(HttpHeaders.ACCEPT)), employee.getId(), employee.getVersion()))) {
+                return null;
+            }
+            return handleSuccess(employee);
+        });
     }
 
     @ApiOperation(value = "Create a new employee with given information"
@@ -76,11 +245,30 @@ public class EmployeeController extends BaseController {
     @ApiResponses(value = {
             @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
             @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
-                    response = EmployeeDTO.class)})
+                    response = EmployeeDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
     @PostMapping("/employees")
-    public ResponseEntity<VoidResponseDTO> saveEmployee(@Valid @RequestBody EmployeeInfoDTO employee) {
+    public CompletableFuture<ResponseEntity<VoidResponseDTO>> saveEmployee(@Valid @RequestBody EmployeeInfoDTO employee) {
         log.debug("Controller : Create Employee with the following Name : {}", employee.getName());
-        return handle(employeeService.saveEmployee(employee), HttpStatus.CREATED);
+        return writeBulkhead.submit(() -> handle(employeeService.saveEmployee(employee), HttpStatus.CREATED));
+    }
+
+    @ApiOperation(value = "Create many employees at once"
+            , consumes = MediaType.APPLICATION_JSON_VALUE
+            , produces = MediaType.APPLICATION_JSON_VALUE
+            , notes = "Add all the given employees in one transaction with batched inserts, all of them or none: "
+            + "a failure creates none of them. The ids are returned in the order of the request."
+            , httpMethod = "POST"
+            , response = BulkEmployeeSaveResultDTO.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
+            @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
+                    response = VoidResponseDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
+    @PostMapping("/employees/bulk")
+    public CompletableFuture<ResponseEntity<BulkEmployeeSaveResultDTO>> saveEmployees(@Valid @RequestBody BulkEmployeeSaveDTO employees) {
+        log.debug("Controller : Create {} Employees", employees.getEmployees().size());
+        return bulkBulkhead.submit(() -> handle(employeeService.saveEmployees(employees.getEmployees()), HttpStatus.CREATED));
     }
 
     @ApiOperation(value = "Delete an existing Employee Record."
@@ -91,12 +279,14 @@ public class EmployeeController extends BaseController {
             , response = VoidResponseDTO.class)
     @ApiResponses(value = {
             @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
+            @ApiResponse(code = 404, message = ResponseContentConstants.NOT_FOUND),
             @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
-                    response = EmployeeDTO.class)})
+                    response = EmployeeDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
     @DeleteMapping("/employees/{employeeId}")
-    public ResponseEntity<VoidResponseDTO> deleteEmployee(@PathVariable(name = "employeeId") @Valid @Min(1) Long employeeId) throws EmployeeAPIException {
+    public CompletableFuture<ResponseEntity<VoidResponseDTO>> deleteEmployee(@PathVariable(name = "employeeId") @Valid @Min(1) Long employeeId) {
         log.debug("Controller : Delete Employee with the following Id : {}", employeeId);
-        return handleSuccess(employeeService.deleteEmployee(employeeId));
+        return writeBulkhead.submit(() -> handleSuccess(employeeService.deleteEmployee(employeeId)));
     }
 
     @ApiOperation(value = "Update an existing Employee Record."
@@ -107,13 +297,33 @@ public class EmployeeController extends BaseController {
             , response = VoidResponseDTO.class)
     @ApiResponses(value = {
             @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
+            @ApiResponse(code = 404, message = ResponseContentConstants.NOT_FOUND),
             @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
-                    response = EmployeeDTO.class)})
+                    response = EmployeeDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
     @PutMapping("/employees")
-    public ResponseEntity<VoidResponseDTO> updateEmployee(@Valid @RequestBody EmployeeDTO employee)
-            throws EmployeeAPIException {
+    public CompletableFuture<ResponseEntity<VoidResponseDTO>> updateEmployee(@Valid @RequestBody EmployeeDTO employee) {
         log.debug("Controller : Update Employee Information with following ID : {}", employee.getId());
-        return handleSuccess(employeeService.updateEmployee(employee));
+        return writeBulkhead.submit(() -> handleSuccess(employeeService.updateEmployee(employee)));
+    }
+
+    @ApiOperation(value = "Update some fields of an existing Employee Record."
+            , consumes = MediaType.APPLICATION_JSON_VALUE
+            , produces = MediaType.APPLICATION_JSON_VALUE
+            , notes = "Update only the given fields of the employee record of the given id."
+            , httpMethod = "PATCH"
+            , response = VoidResponseDTO.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = ResponseContentConstants.BAD_REQUEST),
+            @ApiResponse(code = 404, message = ResponseContentConstants.NOT_FOUND),
+            @ApiResponse(code = 500, message = ResponseContentConstants.INTERNAL_SERVER_ERROR,
+                    response = EmployeeDTO.class),
+            @ApiResponse(code = 503, message = ResponseContentConstants.SERVICE_UNAVAILABLE)})
+    @PatchMapping("/employees/{employeeId}")
+    public CompletableFuture<ResponseEntity<VoidResponseDTO>> patchEmployee(@PathVariable(name = "employeeId") @Min(1) Long employeeId,
+                                                                            @Valid @RequestBody EmployeePatchDTO employee) {
+        log.debug("Controller : Patch Employee Information with following ID : {}", employeeId);
+        return writeBulkhead.submit(() -> handleSuccess(employeeService.patchEmployee(employeeId, employee)));
     }
 
 }
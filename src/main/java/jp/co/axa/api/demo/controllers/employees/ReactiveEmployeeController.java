@@ -0,0 +1,175 @@
+package jp.co.axa.api.demo.controllers.employees;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
+import jp.co.axa.api.demo.services.employee.ReactiveEmployeeService;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+import java.util.List;
+
+import static jp.co.axa.api.demo.controllers.employees.EmployeeController.APPLICATION_NDJSON_VALUE;
+import static jp.co.axa.api.demo.controllers.employees.EmployeeController.APPLICATION_SMILE_VALUE;
+
+/**
+ * The endpoints of {@link EmployeeController} on webflux, for the {@code reactive} profile.
+ * Requests, responses, status codes and ETags are the same, see there for their documentation.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1")
+@Api(tags = {"Employee Service"})
+public class ReactiveEmployeeController extends BaseController {
+
+    @NonNull
+    private final ReactiveEmployeeService employeeService;
+
+    @ApiOperation(value = "Get Employees in the System, one page at a time."
+            , produces = MediaType.APPLICATION_JSON_VALUE + ", " + APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_CBOR_VALUE
+            , httpMethod = "GET", response = EmployeePageDTO.class)
+    @GetMapping("/employees")
+    public Mono<ResponseEntity<BulkEmployeeGetDTO>> getEmployees(@RequestParam(name = "after", required = false) Long after,
+                                                                 @RequestParam(name = "limit", required = false) Integer limit,
+                                                                 @RequestParam(name = "all", defaultValue = "false") boolean all,
+                                                                 ServerWebExchange exchange) {
+        //sets the ETag, and the 304 status when it matches, before the database is touched
+        if (exchange.checkNotModified(eTag(format(exchange.getRequest().getHeaders().getAccept()), employeeService.getEmployeesVersion()))) {
+            return Mono.empty();
+        }
+        if (all) {
+            log.debug("Controller : Getting All Employees");
+            return employeeService.retrieveEmployees().map(this::handleSuccess);
+        }
+        log.debug("Controller : Getting Employees after ID : {} with limit : {}", after, limit);
+        return employeeService.retrieveEmployees(after, limit).map(this::handleSuccess);
+    }
+
+    @ApiOperation(value = "Get only some fields of the Employees in the System, one page at a time."
+            , produces = MediaType.APPLICATION_JSON_VALUE + ", " + APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_CBOR_VALUE
+            , httpMethod = "GET", response = EmployeeFieldsPageDTO.class)
+    @GetMapping(value = "/employees", params = {"fields", "!ids"})
+    public Mono<ResponseEntity<EmployeeFieldsPageDTO>> getEmployeeFields(@RequestParam(name = "fields") List<String> fields,
+                                                                         @RequestParam(name = "after", required = false) Long after,
+                                                                         @RequestParam(name = "limit", required = false) Integer limit,
+                                                                         ServerWebExchange exchange) {
+        if (exchange.checkNotModified(eTag(format(exchange.getRequest().getHeaders().getAccept()), employeeService.getEmployeesVersion()))) {
+            return Mono.empty();
+        }
+        log.debug("Controller : Getting Employee fields {} after ID : {} with limit : {}", fields, after, limit);
+        return employeeService.retrieveEmployees(fields, after, limit).map(this::handleSuccess);
+    }
+
+    @ApiOperation(value = "Get many Employees by ID in one call."
+            , produces = MediaType.APPLICATION_JSON_VALUE + ", " + APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_CBOR_VALUE
+            , httpMethod = "GET", response = BulkEmployeeGetDTO.class)
+    @GetMapping(value = "/employees", params = "ids")
+    public Mono<ResponseEntity<BulkEmployeeGetDTO>> getEmployeesByIds(@RequestParam(name = "ids") List<Long> employeeIds) {
+        log.debug("Controller : Getting {} Employees by ID", employeeIds.size());
+        return employeeService.getEmployees(employeeIds).map(this::handleSuccess);
+    }
+
+    @ApiOperation(value = "Stream All Employees in the System.", produces = APPLICATION_NDJSON_VALUE
+            , httpMethod = "GET", response = EmployeeDTO.class, responseContainer = "List")
+    @GetMapping(value = "/employees/stream", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<EmployeeDTO> streamEmployees() {
+        log.debug("Controller : Streaming All Employees");
+        return employeeService.streamEmployees();
+    }
+
+    @ApiOperation(value = "Search Employees by department and salary range.", produces = MediaType.APPLICATION_JSON_VALUE
+            , httpMethod = "GET", response = BulkEmployeeGetDTO.class)
+    @GetMapping("/employees/search")
+    public Mono<ResponseEntity<BulkEmployeeGetDTO>> searchEmployees(@Valid EmployeeSearchDTO criteria) {
+        log.debug("Controller : Searching Employees with : {}", criteria);
+        return employeeService.searchEmployees(criteria).map(this::handleSuccess);
+    }
+
+    @ApiOperation(value = "Type-ahead search on Employee names.", produces = MediaType.APPLICATION_JSON_VALUE
+            , httpMethod = "GET", response = EmployeeNameSearchDTO.class)
+    @GetMapping("/employees/names")
+    public Mono<ResponseEntity<EmployeeNameSearchDTO>> searchEmployeeNames(@RequestParam(name = "query") String query,
+                                                                           @RequestParam(name = "limit", required = false) Integer limit) {
+        log.debug("Controller : Searching Employee names with : {}", query);
+        return employeeService.searchEmployeeNames(query, limit).map(this::handleSuccess);
+    }
+
+    @ApiOperation(value = "Get Employee Information on the basis of ID"
+            , produces = MediaType.APPLICATION_JSON_VALUE + ", " + APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_CBOR_VALUE
+            , httpMethod = "GET", response = EmployeeDTO.class)
+    @GetMapping("/employees/{employeeId}")
+    public Mono<ResponseEntity<EmployeeDTO>> getEmployee(@PathVariable(name = "employeeId") @Min(1) @Positive Long employeeId,
+                                                         ServerWebExchange exchange) {
+        log.debug("Controller : Getting Employee of the following ID : {}", employeeId);
+        String format = format(exchange.getRequest().getHeaders().getAccept());
+        //webflux answers 304 itself when the ETag of the entity matches If-None-Match
+        return employeeService.getEmployee(employeeId)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(format, employee.getId(), employee.getVersion())).body(employee));
+    }
+
+    @ApiOperation(value = "Create a new employee with given information", consumes = MediaType.APPLICATION_JSON_VALUE
+            , produces = MediaType.APPLICATION_JSON_VALUE, httpMethod = "POST", response = VoidResponseDTO.class)
+    @PostMapping("/employees")
+    public Mono<ResponseEntity<VoidResponseDTO>> saveEmployee(@Valid @RequestBody EmployeeInfoDTO employee) {
+        log.debug("Controller : Create Employee with the following Name : {}", employee.getName());
+        return employeeService.saveEmployee(employee).map(response -> handle(response, HttpStatus.CREATED));
+    }
+
+    @ApiOperation(value = "Create many employees at once", consumes = MediaType.APPLICATION_JSON_VALUE
+            , produces = MediaType.APPLICATION_JSON_VALUE, notes = "All of them or none, in one transaction."
+            , httpMethod = "POST", response = BulkEmployeeSaveResultDTO.class)
+    @PostMapping("/employees/bulk")
+    public Mono<ResponseEntity<BulkEmployeeSaveResultDTO>> saveEmployees(@Valid @RequestBody BulkEmployeeSaveDTO employees) {
+        log.debug("Controller : Create {} Employees", employees.getEmployees().size());
+        return employeeService.saveEmployees(employees.getEmployees()).map(response -> handle(response, HttpStatus.CREATED));
+    }
+
+    @ApiOperation(value = "Delete an existing Employee Record.", produces = MediaType.APPLICATION_JSON_VALUE
+            , httpMethod = "DELETE", response = VoidResponseDTO.class)
+    @DeleteMapping("/employees/{employeeId}")
+    public Mono<ResponseEntity<VoidResponseDTO>> deleteEmployee(@PathVariable(name = "employeeId") @Min(1) Long employeeId) {
+        log.debug("Controller : Delete Employee with the following Id : {}", employeeId);
+        return employeeService.deleteEmployee(employeeId).map(this::handleSuccess);
+    }
+
+    @ApiOperation(value = "Update an existing Employee Record.", consumes = MediaType.APPLICATION_JSON_VALUE
+            , produces = MediaType.APPLICATION_JSON_VALUE, httpMethod = "PUT", response = VoidResponseDTO.class)
+    @PutMapping("/employees")
+    public Mono<ResponseEntity<VoidResponseDTO>> updateEmployee(@Valid @RequestBody EmployeeDTO employee) {
+        log.debug("Controller : Update Employee Information with following ID : {}", employee.getId());
+        return employeeService.updateEmployee(employee).map(this::handleSuccess);
+    }
+
+    @ApiOperation(value = "Update some fields of an existing Employee Record.", consumes = MediaType.APPLICATION_JSON_VALUE
+            , produces = MediaType.APPLICATION_JSON_VALUE, httpMethod = "PATCH", response = VoidResponseDTO.class)
+    @PatchMapping("/employees/{employeeId}")
+    public Mono<ResponseEntity<VoidResponseDTO>> patchEmployee(@PathVariable(name = "employeeId") @Min(1) Long employeeId,
+                                                               @Valid @RequestBody EmployeePatchDTO employee) {
+        log.debug("Controller : Patch Employee Information with following ID : {}", employeeId);
+        return employeeService.patchEmployee(employeeId, employee).map(this::handleSuccess);
+    }
+}
@@ -0,0 +1,24 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import jp.co.axa.api.demo.dto.root.IRootDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEmployeeSaveDTO implements IRootDTO {
+
+    public static final int MAX_EMPLOYEES = 10_000;
+
+    @Valid
+    @NotEmpty
+    @Size(max = MAX_EMPLOYEES, message = "At most " + MAX_EMPLOYEES + " employees can be created at once.")
+    private List<EmployeeInfoDTO> employees;
+}
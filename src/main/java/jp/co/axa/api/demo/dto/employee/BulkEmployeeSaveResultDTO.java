@@ -0,0 +1,22 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import jp.co.axa.api.demo.dto.root.IRootDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk request. The employees are created in one transaction, all of them or none: a failure answers
+ * the whole request with an error, so {@code results} only lists the ids the employees were created with.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEmployeeSaveResultDTO implements IRootDTO {
+
+    private String response;
+
+    private List<EmployeeSaveResultDTO> results;
+}
@@ -1,5 +1,6 @@
 package jp.co.axa.api.demo.dto.employee;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -20,9 +21,20 @@ public class EmployeeDTO extends EmployeeInfoDTO {
     @NotNull
     private Long id;
 
+    /**
+     * Version of the row the DTO was read from, only used for the ETag of the employee.
+     */
+    @JsonIgnore
+    private Long version;
+
     public EmployeeDTO(@NotBlank String name, @Min(value = 0, message = "Salary, cannot be negative.(Can be zero for an intern).") @NotNull Integer salary, @NotBlank String department, Long id) {
         super(name, salary, department);
         this.id = id;
     }
+
+    public EmployeeDTO(String name, Integer salary, String department, Long id, Long version) {
+        this(name, salary, department, id);
+        this.version = version;
+    }
 }
 
@@ -0,0 +1,33 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import jp.co.axa.api.demo.entities.employee.Employee;
+import lombok.Getter;
+
+/**
+ * Employee fields a client can ask for with {@code fields}, in the order they are written.
+ */
+@Getter
+public enum EmployeeField {
+    ID(Employee.ID),
+    NAME(Employee.NAME),
+    SALARY(Employee.SALARY),
+    DEPARTMENT(Employee.DEPARTMENT);
+
+    private final String attribute;
+
+    EmployeeField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    /**
+     * @return the field of the given attribute name, case insensitive, null when there is none
+     */
+    public static EmployeeField ofAttribute(String attribute) {
+        for (EmployeeField field : values()) {
+            if (field.attribute.equalsIgnoreCase(attribute.trim())) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
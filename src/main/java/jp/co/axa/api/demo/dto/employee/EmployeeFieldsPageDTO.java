@@ -0,0 +1,25 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jp.co.axa.api.demo.dto.root.IRootDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of employees with only the requested fields, every employee is written as an object
+ * holding just those keys. Paged like {@link EmployeePageDTO}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeFieldsPageDTO implements IRootDTO {
+
+    private List<Map<String, Object>> employees;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long nextCursor;
+}
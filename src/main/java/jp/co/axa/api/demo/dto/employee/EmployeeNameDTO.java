@@ -0,0 +1,16 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import jp.co.axa.api.demo.dto.root.IRootDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeNameDTO implements IRootDTO {
+
+    private Long id;
+
+    private String name;
+}
@@ -0,0 +1,16 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import jp.co.axa.api.demo.dto.root.IRootDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeNameSearchDTO implements IRootDTO {
+
+    private List<EmployeeNameDTO> employees;
+}
@@ -0,0 +1,26 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of employees ordered by id. {@code nextCursor} is the id to pass as {@code after}
+ * for the following page and is absent on the last page.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class EmployeePageDTO extends BulkEmployeeGetDTO {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long nextCursor;
+
+    public EmployeePageDTO(List<EmployeeDTO> employees, Long nextCursor) {
+        super(employees);
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,37 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jp.co.axa.api.demo.dto.root.IRootDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+
+/**
+ * Partial update of an employee, only the fields that are present are written.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeePatchDTO implements IRootDTO {
+
+    private static final String NOT_BLANK = ".*\\S.*";
+
+    @Pattern(regexp = NOT_BLANK, message = "Name can't be blank.")
+    private String name;
+
+    @Min(value = 0, message="Salary, cannot be negative.(Can be zero for an intern).")
+    private Integer salary;
+
+    @Pattern(regexp = NOT_BLANK, message = "Department can't be blank.")
+    private String department;
+
+    @JsonIgnore
+    @AssertTrue(message = "At least one field has to be given.")
+    public boolean isAnyFieldPresent() {
+        return name != null || salary != null || department != null;
+    }
+}
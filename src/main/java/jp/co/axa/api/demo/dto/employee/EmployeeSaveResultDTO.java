@@ -0,0 +1,19 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import jp.co.axa.api.demo.dto.root.IRootDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Id one item of a bulk request was created with, {@code index} is its position in the request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeSaveResultDTO implements IRootDTO {
+
+    private int index;
+
+    private Long id;
+}
@@ -0,0 +1,31 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Filters of the employee search, every filter is optional.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeSearchDTO {
+
+    private String department;
+
+    @Min(value = 0, message = "Salary, cannot be negative.")
+    private Integer minSalary;
+
+    @Min(value = 0, message = "Salary, cannot be negative.")
+    private Integer maxSalary;
+
+    private EmployeeSortField sort = EmployeeSortField.ID;
+
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    private Integer limit;
+}
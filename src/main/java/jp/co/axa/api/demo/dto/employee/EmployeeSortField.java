@@ -0,0 +1,18 @@
+package jp.co.axa.api.demo.dto.employee;
+
+import jp.co.axa.api.demo.entities.employee.Employee;
+import lombok.Getter;
+
+@Getter
+public enum EmployeeSortField {
+    ID(Employee.ID),
+    NAME(Employee.NAME),
+    SALARY(Employee.SALARY),
+    DEPARTMENT(Employee.DEPARTMENT);
+
+    private final String attribute;
+
+    EmployeeSortField(String attribute) {
+        this.attribute = attribute;
+    }
+}
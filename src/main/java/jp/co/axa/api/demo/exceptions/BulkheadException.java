@@ -0,0 +1,10 @@
+package jp.co.axa.api.demo.exceptions;
+
+/**
+ * A request was shed by a bulkhead, its pool and queue were full or it did not finish in time. Answered with 503.
+ */
+public class BulkheadException extends RuntimeException {
+    public BulkheadException(String message) {
+        super(message, null, false, false);
+    }
+}
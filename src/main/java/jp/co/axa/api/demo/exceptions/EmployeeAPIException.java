@@ -4,4 +4,8 @@ public class EmployeeAPIException extends Exception {
     public EmployeeAPIException(String message) {
         super(message);
     }
+
+    protected EmployeeAPIException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
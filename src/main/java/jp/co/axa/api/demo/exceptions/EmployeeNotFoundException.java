@@ -0,0 +1,12 @@
+package jp.co.axa.api.demo.exceptions;
+
+/**
+ * No employee of the requested id, an expected outcome rather than a failure. Answered with 404.
+ * <p>
+ * Stackless and without suppressed exceptions, so a single instance can be thrown for every miss.
+ */
+public class EmployeeNotFoundException extends EmployeeAPIException {
+    public EmployeeNotFoundException(String message) {
+        super(message, false);
+    }
+}
@@ -0,0 +1,13 @@
+package jp.co.axa.api.demo.exceptions;
+
+/**
+ * A request parameter the service cannot accept, e.g. a limit under one or an unknown field. A client error rather
+ * than a failure, answered with 400.
+ * <p>
+ * Stackless, the message names the invalid parameter.
+ */
+public class InvalidRequestException extends EmployeeAPIException {
+    public InvalidRequestException(String message) {
+        super(message, false);
+    }
+}
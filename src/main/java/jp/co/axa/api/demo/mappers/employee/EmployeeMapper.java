@@ -0,0 +1,31 @@
+package jp.co.axa.api.demo.mappers.employee;
+
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.entities.employee.Employee;
+
+/**
+ * Plain field by field copies between the employee entity and its DTOs.
+ * No reflection and no intermediate objects, these sit on every request path.
+ */
+public class EmployeeMapper {
+
+    public EmployeeDTO toDTO(Employee employee) {
+        return new EmployeeDTO(employee.getName(), employee.getSalary(), employee.getDepartment(), employee.getId(),
+                employee.getVersion());
+    }
+
+    public Employee toEntity(EmployeeInfoDTO employeeInfo) {
+        Employee employee = new Employee();
+        employee.setName(employeeInfo.getName());
+        employee.setSalary(employeeInfo.getSalary());
+        employee.setDepartment(employeeInfo.getDepartment());
+        return employee;
+    }
+
+    public Employee toEntity(EmployeeDTO employeeDTO) {
+        Employee employee = toEntity((EmployeeInfoDTO) employeeDTO);
+        employee.setId(employeeDTO.getId());
+        return employee;
+    }
+}
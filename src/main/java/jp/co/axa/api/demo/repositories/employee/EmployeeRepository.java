@@ -1,9 +1,83 @@
 package jp.co.axa.api.demo.repositories.employee;
 
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
 import jp.co.axa.api.demo.entities.employee.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface EmployeeRepository extends CrudRepository<Employee,Long> {
+public interface EmployeeRepository extends CrudRepository<Employee,Long>, EmployeeRepositoryCustom {
+
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Read only queries select straight into the DTO, no managed entity is created or tracked for them.
+     */
+    String SELECT_DTO = "select new jp.co.axa.api.demo.dto.employee.EmployeeDTO(e.name, e.salary, e.department, e.id, e.version) "
+            + "from Employee e";
+
+    @Query(SELECT_DTO + " where e.id = :id")
+    Optional<EmployeeDTO> findDTOById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + " order by e.id")
+    List<EmployeeDTO> findAllDTOs();
+
+    /**
+     * All the given employees in one IN query, ids that do not exist are skipped.
+     */
+    @Query(SELECT_DTO + " where e.id in :ids")
+    List<EmployeeDTO> findDTOsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Seek query on the primary key, the cost does not depend on how deep the page is.
+     * Only the page size of the pageable is used, its offset should always be zero.
+     */
+    @Query(SELECT_DTO + " where e.id > :id order by e.id")
+    List<EmployeeDTO> findDTOsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Cursor over the whole table, rows are pulled from the driver {@link #STREAM_FETCH_SIZE} at a time.
+     * Has to be consumed inside a transaction and closed once done.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query(SELECT_DTO + " order by e.id")
+    Stream<EmployeeDTO> streamAllDTOs();
+
+    /**
+     * Conditional update in one round trip, no select beforehand. Increments the version as hibernate would.
+     *
+     * @return number of rows updated, zero when no employee has the given id
+     */
+    @Modifying
+    @Query("update Employee e set e.name = :name, e.salary = :salary, e.department = :department, "
+            + "e.version = e.version + 1 where e.id = :id")
+    int updateById(@Param("id") Long id, @Param("name") String name,
+                   @Param("salary") Integer salary, @Param("department") String department);
+
+    /**
+     * Conditional delete in one round trip, unlike {@link #deleteById(Object)} which loads the entity first.
+     *
+     * @return number of rows deleted, zero when no employee has the given id
+     */
+    @Modifying
+    @Query("delete from Employee e where e.id = :id")
+    int removeById(@Param("id") Long id);
 }
@@ -0,0 +1,36 @@
+package jp.co.axa.api.demo.repositories.employee;
+
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeField;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Queries that can't be derived or declared with a static JPQL string.
+ */
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Single UPDATE statement that only sets the columns whose value is not null, and increments the version.
+     *
+     * @return number of rows updated, zero when no employee has the given id
+     */
+    int updateNonNullFieldsById(Long id, String name, Integer salary, String department);
+
+    /**
+     * Employees matching every filter that is set, sorted as asked then by id, at most {@code limit} of them.
+     * Department and salary filters are served by the IDX_EMPLOYEE_DEPARTMENT_SALARY and IDX_EMPLOYEE_SALARY indexes.
+     */
+    List<EmployeeDTO> search(EmployeeSearchDTO criteria, int limit);
+
+    /**
+     * Seek query like {@link EmployeeRepository#findDTOsAfter}, but only the columns of the given fields are selected.
+     * The id is always selected since it is the cursor.
+     *
+     * @return at most {@code limit} employees ordered by id, each a map of attribute name to value in field order
+     */
+    List<Map<String, Object>> findFieldsAfter(Set<EmployeeField> fields, Long after, int limit);
+}
@@ -0,0 +1,118 @@
+package jp.co.axa.api.demo.repositories.employee;
+
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeField;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+import jp.co.axa.api.demo.entities.employee.Employee;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateNonNullFieldsById(Long id, String name, Integer salary, String department) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = builder.createCriteriaUpdate(Employee.class);
+        Root<Employee> employee = update.from(Employee.class);
+        boolean anyField = false;
+        if (name != null) {
+            update.set(employee.<String>get(Employee.NAME), name);
+            anyField = true;
+        }
+        if (salary != null) {
+            update.set(employee.<Integer>get(Employee.SALARY), salary);
+            anyField = true;
+        }
+        if (department != null) {
+            update.set(employee.<String>get(Employee.DEPARTMENT), department);
+            anyField = true;
+        }
+        if (!anyField) {
+            throw new IllegalArgumentException("At least one field has to be updated.");
+        }
+        update.set(employee.<Long>get(Employee.VERSION), builder.sum(employee.<Long>get(Employee.VERSION), 1L));
+        update.where(builder.equal(employee.get(Employee.ID), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<EmployeeDTO> search(EmployeeSearchDTO criteria, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeDTO> query = builder.createQuery(EmployeeDTO.class);
+        Root<Employee> employee = query.from(Employee.class);
+        query.select(builder.construct(EmployeeDTO.class, employee.get(Employee.NAME), employee.get(Employee.SALARY),
+                employee.get(Employee.DEPARTMENT), employee.get(Employee.ID), employee.get(Employee.VERSION)));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getDepartment() != null) {
+            predicates.add(builder.equal(employee.get(Employee.DEPARTMENT), criteria.getDepartment()));
+        }
+        if (criteria.getMinSalary() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(employee.<Integer>get(Employee.SALARY), criteria.getMinSalary()));
+        }
+        if (criteria.getMaxSalary() != null) {
+            predicates.add(builder.lessThanOrEqualTo(employee.<Integer>get(Employee.SALARY), criteria.getMaxSalary()));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        Path<Object> sortPath = employee.get(criteria.getSort().getAttribute());
+        Path<Object> idPath = employee.get(Employee.ID);
+        boolean ascending = criteria.getDirection() == Sort.Direction.ASC;
+        List<Order> orders = new ArrayList<>();
+        orders.add(ascending ? builder.asc(sortPath) : builder.desc(sortPath));
+        if (!Employee.ID.equals(criteria.getSort().getAttribute())) {
+            //ties are broken by id so the order is stable between calls
+            orders.add(ascending ? builder.asc(idPath) : builder.desc(idPath));
+        }
+        query.orderBy(orders);
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsAfter(Set<EmployeeField> fields, Long after, int limit) {
+        Set<EmployeeField> selected = EnumSet.of(EmployeeField.ID);
+        selected.addAll(fields);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (EmployeeField field : selected) {
+            selections.add(employee.get(field.getAttribute()).alias(field.getAttribute()));
+        }
+        query.multiselect(selections);
+        query.where(builder.greaterThan(employee.<Long>get(Employee.ID), after));
+        query.orderBy(builder.asc(employee.get(Employee.ID)));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (EmployeeField field : selected) {
+                        row.put(field.getAttribute(), tuple.get(field.getAttribute()));
+                    }
+                    return row;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,229 @@
+package jp.co.axa.api.demo.repositories.employee;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeField;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+import jp.co.axa.api.demo.entities.employee.Employee;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non blocking counterpart of {@link EmployeeRepository} for the reactive profile, plain SQL over r2dbc.
+ * Reads select straight into DTOs and writes are single conditional statements, like the JPA queries.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveEmployeeRepository {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            Employee.ID, "ID",
+            Employee.NAME, "EMPLOYEE_NAME",
+            Employee.SALARY, "EMPLOYEE_SALARY",
+            Employee.DEPARTMENT, "DEPARTMENT",
+            Employee.VERSION, "VERSION");
+
+    private static final String SELECT_DTO = "select ID, EMPLOYEE_NAME, EMPLOYEE_SALARY, DEPARTMENT, VERSION from EMPLOYEE";
+    private static final String INSERT = "insert into EMPLOYEE (EMPLOYEE_NAME, EMPLOYEE_SALARY, DEPARTMENT, VERSION) "
+            + "values ($1, $2, $3, 0)";
+
+    @NonNull
+    private final DatabaseClient databaseClient;
+
+    public Mono<EmployeeDTO> findDTOById(Long id) {
+        return databaseClient.sql(SELECT_DTO + " where ID = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::toDTO)
+                .one();
+    }
+
+    /**
+     * Every employee ordered by id, rows are emitted as the driver reads them.
+     */
+    public Flux<EmployeeDTO> findAllDTOs() {
+        return databaseClient.sql(SELECT_DTO + " order by ID")
+                .map(ReactiveEmployeeRepository::toDTO)
+                .all();
+    }
+
+    /**
+     * All the given employees in one IN query, ids that do not exist are skipped.
+     */
+    public Flux<EmployeeDTO> findDTOsByIds(Collection<Long> ids) {
+        return databaseClient.sql(SELECT_DTO + " where ID in (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveEmployeeRepository::toDTO)
+                .all();
+    }
+
+    /**
+     * Seek query on the primary key, like {@link EmployeeRepository#findDTOsAfter}.
+     */
+    public Flux<EmployeeDTO> findDTOsAfter(long after, int limit) {
+        return databaseClient.sql(SELECT_DTO + " where ID > :after order by ID limit :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toDTO)
+                .all();
+    }
+
+    /**
+     * Seek query selecting the columns of the given fields only, like {@link EmployeeRepositoryCustom#findFieldsAfter}.
+     */
+    public Flux<Map<String, Object>> findFieldsAfter(Set<EmployeeField> fields, long after, int limit) {
+        Set<EmployeeField> selected = EnumSet.of(EmployeeField.ID);
+        selected.addAll(fields);
+        String columns = selected.stream()
+                .map(field -> COLUMNS.get(field.getAttribute()))
+                .collect(Collectors.joining(", "));
+        return databaseClient.sql("select " + columns + " from EMPLOYEE where ID > :after order by ID limit :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> {
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    for (EmployeeField field : selected) {
+                        values.put(field.getAttribute(), row.get(COLUMNS.get(field.getAttribute())));
+                    }
+                    return values;
+                })
+                .all();
+    }
+
+    /**
+     * Same filters and order as {@link EmployeeRepositoryCustom#search}.
+     */
+    public Flux<EmployeeDTO> search(EmployeeSearchDTO criteria, int limit) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        if (criteria.getDepartment() != null) {
+            predicates.add("DEPARTMENT = :department");
+            bindings.put("department", criteria.getDepartment());
+        }
+        if (criteria.getMinSalary() != null) {
+            predicates.add("EMPLOYEE_SALARY >= :minSalary");
+            bindings.put("minSalary", criteria.getMinSalary());
+        }
+        if (criteria.getMaxSalary() != null) {
+            predicates.add("EMPLOYEE_SALARY <= :maxSalary");
+            bindings.put("maxSalary", criteria.getMaxSalary());
+        }
+        String direction = criteria.getDirection() == Sort.Direction.ASC ? " asc" : " desc";
+        String order = COLUMNS.get(criteria.getSort().getAttribute()) + direction;
+        if (!Employee.ID.equals(criteria.getSort().getAttribute())) {
+            //ties are broken by id so the order is stable between calls
+            order += ", ID" + direction;
+        }
+        String where = predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SELECT_DTO + where + " order by " + order + " limit :limit")
+                .bind("limit", limit);
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec.map(ReactiveEmployeeRepository::toDTO).all();
+    }
+
+    /**
+     * Inserts the given employees as one batch of statements.
+     *
+     * @return the ids the employees were created with, in the order of the input
+     */
+    public Flux<Long> insertAll(List<? extends EmployeeInfoDTO> employees) {
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT).returnGeneratedValues(COLUMNS.get(Employee.ID));
+            for (int i = 0; i < employees.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                EmployeeInfoDTO employee = employees.get(i);
+                //bound by placeholder name, r2dbc-h2 rejects a batch whose later bindings were bound by index
+                statement.bind("$1", employee.getName())
+                        .bind("$2", employee.getSalary())
+                        .bind("$3", employee.getDepartment());
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get(COLUMNS.get(Employee.ID), Long.class)));
+        });
+    }
+
+    /**
+     * Conditional update in one round trip, increments the version.
+     *
+     * @return number of rows updated, zero when no employee has the given id
+     */
+    public Mono<Integer> updateById(Long id, String name, Integer salary, String department) {
+        return databaseClient.sql("update EMPLOYEE set EMPLOYEE_NAME = :name, EMPLOYEE_SALARY = :salary, "
+                        + "DEPARTMENT = :department, VERSION = VERSION + 1 where ID = :id")
+                .bind("id", id)
+                .bind("name", name)
+                .bind("salary", salary)
+                .bind("department", department)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Single UPDATE statement that only sets the columns whose value is not null, and increments the version.
+     *
+     * @return number of rows updated, zero when no employee has the given id
+     */
+    public Mono<Integer> updateNonNullFieldsById(Long id, String name, Integer salary, String department) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (name != null) {
+            values.put(Employee.NAME, name);
+        }
+        if (salary != null) {
+            values.put(Employee.SALARY, salary);
+        }
+        if (department != null) {
+            values.put(Employee.DEPARTMENT, department);
+        }
+        if (values.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("At least one field has to be updated."));
+        }
+        String assignments = values.keySet().stream()
+                .map(attribute -> COLUMNS.get(attribute) + " = :" + attribute)
+                .collect(Collectors.joining(", "));
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql("update EMPLOYEE set " + assignments + ", VERSION = VERSION + 1 where ID = :id")
+                .bind("id", id);
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            spec = spec.bind(value.getKey(), value.getValue());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * Conditional delete in one round trip.
+     *
+     * @return number of rows deleted, zero when no employee has the given id
+     */
+    public Mono<Integer> removeById(Long id) {
+        return databaseClient.sql("delete from EMPLOYEE where ID = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static EmployeeDTO toDTO(Row row) {
+        return new EmployeeDTO(row.get("EMPLOYEE_NAME", String.class), row.get("EMPLOYEE_SALARY", Integer.class),
+                row.get("DEPARTMENT", String.class), row.get("ID", Long.class), row.get("VERSION", Long.class));
+    }
+}
@@ -8,6 +8,7 @@ public enum CommonResponseMessage {
     ENTITY_UNAVAILABLE("%s record unavailable for given id."),
     VALIDATION_ISSUE("%s field invalid in given input."),
     CREATE_SUCCESSFUL("%s with id %d Successfully created."),
+    BULK_CREATE_SUCCESSFUL("%d %s records Successfully created."),
     UPDATE_SUCCESSFUL("%s with id %d Successfully updated."),
     DELETE_SUCCESSFUL("%s with id %d Successfully deleted.");
 
@@ -0,0 +1,26 @@
+package jp.co.axa.api.demo.services.employee;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import jp.co.axa.api.demo.repositories.employee.EmployeeRepository;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the entries of {@code employeeCache}. Used by caffeine for the background refresh of entries
+ * that are still read, an employee that no longer exists is dropped from the cache.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeCacheLoader implements CacheLoader<Object, Object> {
+
+    @NonNull
+    private final EmployeeRepository employeeRepository;
+
+    @Override
+    public Object load(Object employeeId) {
+        return employeeRepository.findDTOById((Long) employeeId).orElse(null);
+    }
+}
@@ -0,0 +1,33 @@
+package jp.co.axa.api.demo.services.employee;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the employee table as a whole: counts the committed writes since startup.
+ * Kept in memory, which is enough as the database lives in this process and every write goes through it.
+ */
+@Component
+public class EmployeeChangeCounter {
+
+    //the count restarts from zero, the start time keeps versions of different runs apart
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong changes = new AtomicLong();
+
+    public void increment() {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Committed writes so far. Read before a query, a different count afterwards means a write may have committed
+     * while the query ran.
+     */
+    public long changes() {
+        return changes.get();
+    }
+
+    public String current() {
+        return epoch + "-" + changes.get();
+    }
+}
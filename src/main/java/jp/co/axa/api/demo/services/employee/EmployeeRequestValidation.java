@@ -0,0 +1,95 @@
+package jp.co.axa.api.demo.services.employee;
+
+import jp.co.axa.api.demo.dto.employee.EmployeeField;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+import jp.co.axa.api.demo.exceptions.InvalidRequestException;
+
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks on request parameters shared by the servlet and the reactive employee services. Invalid parameters are
+ * answered with 400.
+ */
+final class EmployeeRequestValidation {
+
+    private static final String IDS = "ids";
+    private static final String LIMIT = "limit";
+    private static final String SALARY_RANGE = "minSalary";
+    private static final String QUERY = "query";
+    private static final String FIELDS = "fields";
+
+    private EmployeeRequestValidation() {
+    }
+
+    /**
+     * @return the given limit capped to the maximum, the default one when null
+     * @throws InvalidRequestException thrown when the limit is not positive
+     */
+    static int pageLimit(Integer limit, int defaultLimit, int maxLimit) throws InvalidRequestException {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw invalid(LIMIT);
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    /**
+     * @return the distinct non null ids in the given order
+     * @throws InvalidRequestException thrown when no ID or more than {@code maxLimit} IDs are given
+     */
+    static Set<Long> ids(List<Long> employeeIds, int maxLimit) throws InvalidRequestException {
+        Set<Long> ids = new LinkedHashSet<>(employeeIds);
+        ids.remove(null);
+        if (ids.isEmpty() || ids.size() > maxLimit) {
+            throw invalid(IDS);
+        }
+        return ids;
+    }
+
+    /**
+     * @return the fields of the given attribute names, case insensitive
+     * @throws InvalidRequestException thrown when no field or an unknown one is given
+     */
+    static Set<EmployeeField> fields(List<String> attributes) throws InvalidRequestException {
+        Set<EmployeeField> fields = EnumSet.noneOf(EmployeeField.class);
+        for (String attribute : attributes) {
+            EmployeeField field = attribute == null ? null : EmployeeField.ofAttribute(attribute);
+            if (field == null) {
+                throw invalid(FIELDS);
+            }
+            fields.add(field);
+        }
+        if (fields.isEmpty()) {
+            throw invalid(FIELDS);
+        }
+        return fields;
+    }
+
+    /**
+     * @throws InvalidRequestException thrown when the salary range of the criteria is empty
+     */
+    static void salaryRange(EmployeeSearchDTO criteria) throws InvalidRequestException {
+        if (criteria.getMinSalary() != null && criteria.getMaxSalary() != null
+                && criteria.getMinSalary() > criteria.getMaxSalary()) {
+            throw invalid(SALARY_RANGE);
+        }
+    }
+
+    /**
+     * @throws InvalidRequestException thrown when the name query is blank
+     */
+    static void nameQuery(String query) throws InvalidRequestException {
+        if (query == null || query.trim().isEmpty()) {
+            throw invalid(QUERY);
+        }
+    }
+
+    private static InvalidRequestException invalid(String field) {
+        return new InvalidRequestException(String.format(CommonResponseMessage.VALIDATION_ISSUE.getMessage(), field));
+    }
+}
@@ -1,20 +1,47 @@
 package jp.co.axa.api.demo.services.employee;
 
 import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
 import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
 import jp.co.axa.api.demo.exceptions.EmployeeAPIException;
 import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
 import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     BulkEmployeeGetDTO retrieveEmployees();
 
+    String getEmployeesVersion();
+
+    EmployeePageDTO retrieveEmployees(Long after, Integer limit) throws EmployeeAPIException;
+
+    EmployeeFieldsPageDTO retrieveEmployees(List<String> fields, Long after, Integer limit) throws EmployeeAPIException;
+
+    void streamEmployees(Consumer<EmployeeDTO> consumer);
+
+    BulkEmployeeGetDTO searchEmployees(EmployeeSearchDTO criteria) throws EmployeeAPIException;
+
+    EmployeeNameSearchDTO searchEmployeeNames(String query, Integer limit) throws EmployeeAPIException;
+
     VoidResponseDTO saveEmployee(EmployeeInfoDTO employee) ;
 
+    BulkEmployeeSaveResultDTO saveEmployees(List<EmployeeInfoDTO> employees);
+
     EmployeeDTO getEmployee(Long employeeId) throws EmployeeAPIException;
 
+    BulkEmployeeGetDTO getEmployees(List<Long> employeeIds) throws EmployeeAPIException;
+
     VoidResponseDTO deleteEmployee(Long employeeId) throws EmployeeAPIException;
 
     VoidResponseDTO updateEmployee(EmployeeDTO employee) throws EmployeeAPIException;
+
+    VoidResponseDTO patchEmployee(Long employeeId, EmployeePatchDTO employee) throws EmployeeAPIException;
 }
\ No newline at end of file
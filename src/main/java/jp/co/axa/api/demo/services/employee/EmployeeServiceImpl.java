@@ -1,63 +1,263 @@
 package jp.co.axa.api.demo.services.employee;
 
+import com.google.common.collect.Lists;
+import io.micrometer.core.annotation.Timed;
+import jp.co.axa.api.demo.configuration.MetricsConfiguration;
 import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeField;
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
 import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
 import jp.co.axa.api.demo.entities.employee.Employee;
 import jp.co.axa.api.demo.exceptions.EmployeeAPIException;
+import jp.co.axa.api.demo.exceptions.EmployeeNotFoundException;
+import jp.co.axa.api.demo.mappers.employee.EmployeeMapper;
 import jp.co.axa.api.demo.repositories.employee.EmployeeRepository;
+import jp.co.axa.api.demo.services.employee.index.EmployeeNameIndex;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
+
+import static jp.co.axa.api.demo.configuration.CacheConfiguration.EMPLOYEE_BODY_CACHE;
+import static jp.co.axa.api.demo.configuration.CacheConfiguration.EMPLOYEE_CACHE;
+import static jp.co.axa.api.demo.configuration.CacheConfiguration.EMPLOYEE_MISS_CACHE;
 
 @RequiredArgsConstructor
 @Service
+@Profile("!reactive")
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class EmployeeServiceImpl implements EmployeeService {
     @NonNull
     private final EmployeeRepository employeeRepository;
     @NonNull
-    private final ModelMapper mapper;
+    private final EmployeeMapper mapper;
+    @NonNull
+    private final EntityManager entityManager;
+    @NonNull
+    private final EmployeeNameIndex nameIndex;
+    @NonNull
+    private final CacheManager cacheManager;
+    @NonNull
+    private final EmployeeChangeCounter changeCounter;
 
     private static final String EMPLOYEE = "Employee";
 
+    /**
+     * Thrown for every id with no employee, misses are expected and cost no stack trace.
+     */
+    private static final EmployeeNotFoundException EMPLOYEE_NOT_FOUND =
+            new EmployeeNotFoundException(String.format(CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage(), EMPLOYEE));
+
+    @Value("${api.demo.page.default-limit}")
+    int defaultPageLimit;
+
+    @Value("${api.demo.page.max-limit}")
+    int maxPageLimit;
+
+    @Value("${api.demo.name-search.default-limit}")
+    int defaultNameSearchLimit;
+
+    @Value("${api.demo.jdbc.batch-size}")
+    int batchSize;
+
     /**
      * Retrieve all the employees present in the database.
+     * Unbounded, prefer {@link #retrieveEmployees(Long, Integer)} for anything but small tables.
      *
      * @return dto that has list of employees
      */
     public BulkEmployeeGetDTO retrieveEmployees() {
-        Iterable<Employee> employees = employeeRepository.findAll();
-        List<EmployeeDTO> employeeDTOs =  StreamSupport.stream(employees.spliterator(), false)
-                .map(employee -> mapper.map(employee, EmployeeDTO.class))
-                .collect(Collectors.toList());
-        return new BulkEmployeeGetDTO(employeeDTOs);
+        return new BulkEmployeeGetDTO(employeeRepository.findAllDTOs());
+    }
+
+    /**
+     * Version of the employee table as a whole, it changes whenever an employee is created, updated or deleted.
+     * Read it before reading employees: a write in between then makes the version older than the data, never newer.
+     *
+     * @return opaque version, only meant to be compared for equality
+     */
+    public String getEmployeesVersion() {
+        return changeCounter.current();
+    }
+
+    /**
+     * Retrieve one page of employees ordered by id, starting right after the given cursor.
+     * One extra row is fetched to know whether a next page exists without a count query.
+     *
+     * @param after id of the last employee of the previous page, null for the first page
+     * @param limit page size, null for the default one. Capped to the configured maximum.
+     * @return dto that has the page of employees and the cursor of the next page
+     * @throws EmployeeAPIException thrown when the limit is not positive
+     */
+    public EmployeePageDTO retrieveEmployees(Long after, Integer limit) throws EmployeeAPIException {
+        int pageSize = resolvePageLimit(limit);
+        long cursor = after == null ? 0L : after;
+        List<EmployeeDTO> employees = employeeRepository.findDTOsAfter(cursor, PageRequest.of(0, pageSize + 1));
+        if (employees.size() <= pageSize) {
+            return new EmployeePageDTO(employees, null);
+        }
+        List<EmployeeDTO> page = employees.subList(0, pageSize);
+        return new EmployeePageDTO(page, page.get(pageSize - 1).getId());
+    }
+
+    /**
+     * Retrieve one page of employees like {@link #retrieveEmployees(Long, Integer)}, with only the given fields.
+     * Only the columns of those fields are selected, so narrower pages also read, map and write less.
+     *
+     * @param fields attribute names of the fields, case insensitive. The id is always included.
+     * @param after  id of the last employee of the previous page, null for the first page
+     * @param limit  page size, null for the default one. Capped to the configured maximum.
+     * @return dto that has the page of employees and the cursor of the next page
+     * @throws EmployeeAPIException thrown when no or an unknown field is given, or the limit is not positive
+     */
+    public EmployeeFieldsPageDTO retrieveEmployees(List<String> fields, Long after, Integer limit) throws EmployeeAPIException {
+        Set<EmployeeField> selected = EmployeeRequestValidation.fields(fields);
+        int pageSize = resolvePageLimit(limit);
+        long cursor = after == null ? 0L : after;
+        List<Map<String, Object>> employees = employeeRepository.findFieldsAfter(selected, cursor, pageSize + 1);
+        if (employees.size() <= pageSize) {
+            return new EmployeeFieldsPageDTO(employees, null);
+        }
+        List<Map<String, Object>> page = employees.subList(0, pageSize);
+        return new EmployeeFieldsPageDTO(page, (Long) page.get(pageSize - 1).get(Employee.ID));
+    }
+
+    /**
+     * Hand every employee, ordered by id, to the given consumer as soon as it is read.
+     * Rows are read straight into DTOs, nothing is kept in the persistence context, so the heap
+     * stays flat whatever the size of the table.
+     *
+     * @param consumer receives the employees one by one
+     */
+    @Transactional(readOnly = true)
+    public void streamEmployees(Consumer<EmployeeDTO> consumer) {
+        try (Stream<EmployeeDTO> employees = employeeRepository.streamAllDTOs()) {
+            employees.forEach(consumer);
+        }
+    }
+
+    /**
+     * Search employees by department and salary range.
+     *
+     * @param criteria filters, sort and limit of the search. Absent filters are not applied.
+     * @return dto that has at most limit matching employees
+     * @throws EmployeeAPIException thrown when the limit is not positive or the salary range is empty
+     */
+    public BulkEmployeeGetDTO searchEmployees(EmployeeSearchDTO criteria) throws EmployeeAPIException {
+        int limit = resolvePageLimit(criteria.getLimit());
+        EmployeeRequestValidation.salaryRange(criteria);
+        return new BulkEmployeeGetDTO(employeeRepository.search(criteria, limit));
+    }
+
+    /**
+     * Type-ahead search on employee names, answered from the in memory name index without hitting the database.
+     *
+     * @param query part of the name, case insensitive
+     * @param limit maximum number of employees, null for the default one. Capped to the configured maximum.
+     * @return dto that has the id and name of at most limit employees, names starting with the query first
+     * @throws EmployeeAPIException thrown when the query is blank or the limit is not positive
+     */
+    public EmployeeNameSearchDTO searchEmployeeNames(String query, Integer limit) throws EmployeeAPIException {
+        EmployeeRequestValidation.nameQuery(query);
+        int size = limit == null ? defaultNameSearchLimit : resolvePageLimit(limit);
+        return new EmployeeNameSearchDTO(nameIndex.search(query, size));
     }
 
     /**
      * Get employee for given ID.
+     * Concurrent misses on the same ID are coalesced, only one of them reads the database and the
+     * others wait for its result. IDs with no employee are remembered for a short while in the miss cache, tagged
+     * with the count of committed writes read before the query: once another write commits the miss is not trusted
+     * any more, the write may have created the employee after the query but before the miss was put.
      *
      * @param employeeId ID for which employee needs to be fetched
      * @return DTO of employee whose id was given as input.
-     * @throws EmployeeAPIException thrown when no employee of this id exist
+     * @throws EmployeeNotFoundException thrown when no employee of this id exist
      */
-    @Cacheable(value = "employeeCache", key = "#employeeId")
+    @Cacheable(value = EMPLOYEE_CACHE, key = "#employeeId", sync = true)
     public EmployeeDTO getEmployee(Long employeeId) throws EmployeeAPIException {
-        EmployeeDTO employeeDTO = getEmployeeDTOById(employeeId);
+        Cache missCache = cacheManager.getCache(EMPLOYEE_MISS_CACHE);
+        long changes = changeCounter.changes();
+        Long missTag = missCache.get(employeeId, Long.class);
+        EmployeeDTO employeeDTO = missTag == null || missTag != changes ? getEmployeeDTOById(employeeId) : null;
         if (employeeDTO == null) {
-            throw new EmployeeAPIException(String.format(CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage(), EMPLOYEE));
+            missCache.put(employeeId, changes);
+            throw EMPLOYEE_NOT_FOUND;
         }
         return employeeDTO;
     }
 
+    /**
+     * Get all the employees of the given IDs.
+     * Cached employees are read with one bulk lookup, all the others are loaded with a single IN query
+     * and written back to the same cache that {@link #getEmployee(Long)} uses. IDs in the miss cache are
+     * not queried, IDs the query does not find are added to it, both as in {@link #getEmployee(Long)}.
+     * A write committed while the query ran may have evicted its employee before the loaded one is put,
+     * so the loaded employees are taken out of the cache again when the count of committed writes moved.
+     *
+     * @param employeeIds IDs of the employees, duplicates are ignored. At most the maximum page size.
+     * @return dto that has the employees in the order of the given IDs, IDs with no employee are skipped
+     * @throws EmployeeAPIException thrown when no ID or too many IDs are given
+     */
+    public BulkEmployeeGetDTO getEmployees(List<Long> employeeIds) throws EmployeeAPIException {
+        Set<Long> ids = EmployeeRequestValidation.ids(employeeIds, maxPageLimit);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = nativeCache(EMPLOYEE_CACHE);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> missCache = nativeCache(EMPLOYEE_MISS_CACHE);
+        long changes = changeCounter.changes();
+        Map<Object, Object> cached = new HashMap<>(cache.getAllPresent(ids));
+        Map<Object, Object> knownMissing = missCache.getAllPresent(ids);
+        List<Long> missing = ids.stream()
+                .filter(id -> !(cached.get(id) instanceof EmployeeDTO) && !Long.valueOf(changes).equals(knownMissing.get(id)))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            Map<Long, EmployeeDTO> loaded = employeeRepository.findDTOsByIds(missing).stream()
+                    .collect(Collectors.toMap(EmployeeDTO::getId, employee -> employee));
+            cache.putAll(loaded);
+            if (changeCounter.changes() != changes) {
+                //only the entries put here, a newer one put in the meantime stays
+                loaded.forEach((id, employee) -> cache.asMap().remove(id, employee));
+            }
+            cached.putAll(loaded);
+            missing.stream()
+                    .filter(id -> !loaded.containsKey(id))
+                    .forEach(id -> missCache.put(id, changes));
+        }
+        List<EmployeeDTO> employees = ids.stream()
+                .map(cached::get)
+                .filter(EmployeeDTO.class::isInstance)
+                .map(EmployeeDTO.class::cast)
+                .collect(Collectors.toList());
+        return new BulkEmployeeGetDTO(employees);
+    }
+
     /**
      * Create Employee of the given ID.
      *
@@ -66,53 +266,156 @@ public class EmployeeServiceImpl implements EmployeeService {
      * using void using VoidResponseDTO which has a String message for end user.
      */
     public VoidResponseDTO saveEmployee(EmployeeInfoDTO employeeInfo) {
-        Employee employeeEntity = mapper.map(employeeInfo, Employee.class);
+        Employee employeeEntity = mapper.toEntity(employeeInfo);
         EmployeeDTO employeeDTO = saveEmployee(employeeEntity);
         String response = String.format(CommonResponseMessage.CREATE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeDTO.getId());
         return new VoidResponseDTO(response);
     }
 
+    /**
+     * Create all the given employees in one transaction, all of them or none.
+     * Employees are persisted and flushed in chunks of the jdbc batch size, so every chunk goes to the
+     * database as one batched insert, then the persistence context is cleared to keep memory flat.
+     * A failing chunk rolls back the chunks before it too.
+     *
+     * @param employeeInfos employees that you are trying to create.
+     * @return the id of every employee, in the order of the input.
+     */
+    @Transactional
+    public BulkEmployeeSaveResultDTO saveEmployees(List<EmployeeInfoDTO> employeeInfos) {
+        List<EmployeeSaveResultDTO> results = new ArrayList<>(employeeInfos.size());
+        for (List<EmployeeInfoDTO> chunk : Lists.partition(employeeInfos, batchSize)) {
+            List<Employee> employees = chunk.stream()
+                    .map(mapper::toEntity)
+                    .collect(Collectors.toList());
+            employeeRepository.saveAll(employees);
+            entityManager.flush();
+            entityManager.clear();
+            for (Employee employee : employees) {
+                afterCommit(() -> employeeCreated(employee));
+                results.add(new EmployeeSaveResultDTO(results.size(), employee.getId()));
+            }
+        }
+        afterCommit(changeCounter::increment);
+        String response = String.format(CommonResponseMessage.BULK_CREATE_SUCCESSFUL.getMessage(), results.size(), EMPLOYEE);
+        return new BulkEmployeeSaveResultDTO(response, results);
+    }
+
     /**
      * Update Employee of the given ID.
+     * A single conditional UPDATE, the number of updated rows tells whether the employee exists.
      *
      * @param employee employee that you are trying to update.
      * @return VoidResponseDTO The api should generally should have a response. So instead of
      * using void using VoidResponseDTO which has a String message for end user.
      */
-    @CacheEvict(value = "employeeCache", key = "#employee.id")
+    @Transactional
+    @CacheEvict(value = {EMPLOYEE_CACHE, EMPLOYEE_MISS_CACHE, EMPLOYEE_BODY_CACHE}, key = "#employee.id")
     public VoidResponseDTO updateEmployee(EmployeeDTO employee) throws EmployeeAPIException {
-        Employee employeeEntity = mapper.map(employee, Employee.class);
-        if (!employeeRepository.existsById(employee.getId())) {
-            throw new EmployeeAPIException(String.format(CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage(), EMPLOYEE));
+        int updated = employeeRepository.updateById(employee.getId(), employee.getName(), employee.getSalary(), employee.getDepartment());
+        if (updated == 0) {
+            throw EMPLOYEE_NOT_FOUND;
         }
-        EmployeeDTO employeeDTO = saveEmployee(employeeEntity);
-        return new VoidResponseDTO(String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeDTO.getId()));
+        afterCommit(() -> {
+            nameIndex.put(employee.getId(), employee.getName());
+            changeCounter.increment();
+        });
+        return new VoidResponseDTO(String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, employee.getId()));
+    }
+
+    /**
+     * Update only the given fields of the Employee of the given ID.
+     * A single conditional UPDATE that sets the present fields only, so other columns are not rewritten.
+     *
+     * @param employeeId employee you are trying to update
+     * @param employee   fields to update, absent ones are left as they are.
+     * @return VoidResponseDTO The api should generally should have a response. So instead of
+     * using void using VoidResponseDTO which has a String message for end user.
+     */
+    @Transactional
+    @CacheEvict(value = {EMPLOYEE_CACHE, EMPLOYEE_MISS_CACHE, EMPLOYEE_BODY_CACHE}, key = "#employeeId")
+    public VoidResponseDTO patchEmployee(Long employeeId, EmployeePatchDTO employee) throws EmployeeAPIException {
+        int updated = employeeRepository.updateNonNullFieldsById(employeeId, employee.getName(), employee.getSalary(), employee.getDepartment());
+        if (updated == 0) {
+            throw EMPLOYEE_NOT_FOUND;
+        }
+        afterCommit(() -> {
+            if (employee.getName() != null) {
+                nameIndex.put(employeeId, employee.getName());
+            }
+            changeCounter.increment();
+        });
+        return new VoidResponseDTO(String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeId));
     }
 
     /**
      * Delete Employee of the given ID.
+     * A single conditional DELETE, the number of deleted rows tells whether the employee existed.
      *
      * @param employeeId employee you are trying to delete
      * @return VoidResponseDTO The api should generally should have a response. So instead of
      * using void using VoidResponseDTO which has a String message for end user.
      */
-    @CacheEvict(value = "employeeCache", key = "#employeeId")
+    @Transactional
+    @CacheEvict(value = {EMPLOYEE_CACHE, EMPLOYEE_BODY_CACHE}, key = "#employeeId")
     public VoidResponseDTO deleteEmployee(Long employeeId) throws EmployeeAPIException {
-        if (!employeeRepository.existsById(employeeId)) {
-            throw new EmployeeAPIException(String.format(CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage(), EMPLOYEE));
+        if (employeeRepository.removeById(employeeId) == 0) {
+            throw EMPLOYEE_NOT_FOUND;
         }
-        employeeRepository.deleteById(employeeId);
+        afterCommit(() -> {
+            nameIndex.remove(employeeId);
+            changeCounter.increment();
+        });
         return new VoidResponseDTO(String.format(CommonResponseMessage.DELETE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeId));
     }
 
+    private int resolvePageLimit(Integer limit) throws EmployeeAPIException {
+        return EmployeeRequestValidation.pageLimit(limit, defaultPageLimit, maxPageLimit);
+    }
+
+    /**
+     * Run the action once the current transaction commits, so a rolled back write never reaches the
+     * in memory indexes. Runs right away when there is no transaction.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * The caffeine cache behind the spring cache, it has the bulk operations the spring abstraction lacks.
+     */
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+
+    /**
+     * A new ID may have been looked up before it existed, so it must not be reported missing any more.
+     */
+    private void employeeCreated(Employee employee) {
+        cacheManager.getCache(EMPLOYEE_MISS_CACHE).evict(employee.getId());
+        nameIndex.put(employee.getId(), employee.getName());
+    }
+
     private EmployeeDTO getEmployeeDTOById(Long employeeId) {
-        Optional<Employee> employeeOptional = employeeRepository.findById(employeeId);
-        return employeeOptional.map(employee -> mapper.map(employee, EmployeeDTO.class)).orElse(null);
+        return employeeRepository.findDTOById(employeeId).orElse(null);
     }
 
     public EmployeeDTO saveEmployee(Employee employeeEntity) {
         Employee employee = employeeRepository.save(employeeEntity);
-        return mapper.map(employee, EmployeeDTO.class);
+        afterCommit(() -> {
+            employeeCreated(employee);
+            changeCounter.increment();
+        });
+        return mapper.toDTO(employee);
     }
 
 }
\ No newline at end of file
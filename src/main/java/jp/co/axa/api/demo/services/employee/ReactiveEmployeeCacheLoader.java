@@ -0,0 +1,47 @@
+package jp.co.axa.api.demo.services.employee;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.repositories.employee.ReactiveEmployeeRepository;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the entries of the reactive {@code employeeCache} without blocking, the futures complete on the
+ * r2dbc threads. An employee that does not exist completes with null and is not cached.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveEmployeeCacheLoader implements AsyncCacheLoader<Long, EmployeeDTO> {
+
+    @NonNull
+    private final ReactiveEmployeeRepository employeeRepository;
+
+    @Override
+    public CompletableFuture<EmployeeDTO> asyncLoad(Long employeeId, Executor executor) {
+        return employeeRepository.findDTOById(employeeId).toFuture();
+    }
+
+    /**
+     * All the missing employees in one IN query, ids with no employee are left out of the result.
+     */
+    @Override
+    public CompletableFuture<Map<Long, EmployeeDTO>> asyncLoadAll(Iterable<? extends Long> employeeIds, Executor executor) {
+        List<Long> ids = new ArrayList<>();
+        employeeIds.forEach(ids::add);
+        return employeeRepository.findDTOsByIds(ids)
+                .collect(Collectors.toMap(EmployeeDTO::getId, Function.identity()))
+                .toFuture();
+    }
+}
@@ -0,0 +1,51 @@
+package jp.co.axa.api.demo.services.employee;
+
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non blocking {@link EmployeeService} of the reactive profile. Failures are signalled as
+ * {@link jp.co.axa.api.demo.exceptions.EmployeeAPIException} errors instead of being thrown.
+ */
+public interface ReactiveEmployeeService {
+
+    Mono<BulkEmployeeGetDTO> retrieveEmployees();
+
+    String getEmployeesVersion();
+
+    Mono<EmployeePageDTO> retrieveEmployees(Long after, Integer limit);
+
+    Mono<EmployeeFieldsPageDTO> retrieveEmployees(List<String> fields, Long after, Integer limit);
+
+    Flux<EmployeeDTO> streamEmployees();
+
+    Mono<BulkEmployeeGetDTO> searchEmployees(EmployeeSearchDTO criteria);
+
+    Mono<EmployeeNameSearchDTO> searchEmployeeNames(String query, Integer limit);
+
+    Mono<VoidResponseDTO> saveEmployee(EmployeeInfoDTO employee);
+
+    Mono<BulkEmployeeSaveResultDTO> saveEmployees(List<EmployeeInfoDTO> employees);
+
+    Mono<EmployeeDTO> getEmployee(Long employeeId);
+
+    Mono<BulkEmployeeGetDTO> getEmployees(List<Long> employeeIds);
+
+    Mono<VoidResponseDTO> deleteEmployee(Long employeeId);
+
+    Mono<VoidResponseDTO> updateEmployee(EmployeeDTO employee);
+
+    Mono<VoidResponseDTO> patchEmployee(Long employeeId, EmployeePatchDTO employee);
+}
@@ -0,0 +1,284 @@
+package jp.co.axa.api.demo.services.employee;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.google.common.collect.Lists;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeField;
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
+import jp.co.axa.api.demo.entities.employee.Employee;
+import jp.co.axa.api.demo.exceptions.EmployeeNotFoundException;
+import jp.co.axa.api.demo.repositories.employee.ReactiveEmployeeRepository;
+import jp.co.axa.api.demo.services.employee.index.EmployeeNameIndex;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Same behaviour as {@link EmployeeServiceImpl} without blocking a thread on the database.
+ * Single employees come from an async caffeine cache whose values are futures, so concurrent misses
+ * on the same ID share one read.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+    @NonNull
+    private final ReactiveEmployeeRepository employeeRepository;
+    @NonNull
+    private final AsyncLoadingCache<Long, EmployeeDTO> employeeCache;
+    @NonNull
+    private final Cache<Long, Long> employeeMissCache;
+    @NonNull
+    private final EmployeeNameIndex nameIndex;
+    @NonNull
+    private final EmployeeChangeCounter changeCounter;
+    @NonNull
+    private final TransactionalOperator transactionalOperator;
+
+    private static final String EMPLOYEE = "Employee";
+
+    private static final EmployeeNotFoundException EMPLOYEE_NOT_FOUND =
+            new EmployeeNotFoundException(String.format(CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage(), EMPLOYEE));
+
+    @Value("${api.demo.page.default-limit}")
+    int defaultPageLimit;
+
+    @Value("${api.demo.page.max-limit}")
+    int maxPageLimit;
+
+    @Value("${api.demo.name-search.default-limit}")
+    int defaultNameSearchLimit;
+
+    @Value("${api.demo.jdbc.batch-size}")
+    int batchSize;
+
+    /**
+     * Unbounded, prefer {@link #retrieveEmployees(Long, Integer)} for anything but small tables.
+     */
+    public Mono<BulkEmployeeGetDTO> retrieveEmployees() {
+        return employeeRepository.findAllDTOs().collectList().map(BulkEmployeeGetDTO::new);
+    }
+
+    public String getEmployeesVersion() {
+        return changeCounter.current();
+    }
+
+    /**
+     * One page of employees ordered by id, one extra row tells whether a next page exists.
+     */
+    public Mono<EmployeePageDTO> retrieveEmployees(Long after, Integer limit) {
+        long cursor = after == null ? 0L : after;
+        return Mono.fromCallable(() -> EmployeeRequestValidation.pageLimit(limit, defaultPageLimit, maxPageLimit))
+                .flatMap(pageSize -> employeeRepository.findDTOsAfter(cursor, pageSize + 1).collectList()
+                        .map(employees -> employees.size() <= pageSize
+                                ? new EmployeePageDTO(employees, null)
+                                : new EmployeePageDTO(employees.subList(0, pageSize), employees.get(pageSize - 1).getId())));
+    }
+
+    /**
+     * One page of employees with only the columns of the given fields selected.
+     */
+    public Mono<EmployeeFieldsPageDTO> retrieveEmployees(List<String> fields, Long after, Integer limit) {
+        long cursor = after == null ? 0L : after;
+        return Mono.fromCallable(() -> EmployeeRequestValidation.fields(fields))
+                .zipWith(Mono.fromCallable(() -> EmployeeRequestValidation.pageLimit(limit, defaultPageLimit, maxPageLimit)))
+                .flatMap(request -> {
+                    Set<EmployeeField> selected = request.getT1();
+                    int pageSize = request.getT2();
+                    return employeeRepository.findFieldsAfter(selected, cursor, pageSize + 1).collectList()
+                            .map(employees -> employees.size() <= pageSize
+                                    ? new EmployeeFieldsPageDTO(employees, null)
+                                    : new EmployeeFieldsPageDTO(employees.subList(0, pageSize),
+                                    (Long) employees.get(pageSize - 1).get(Employee.ID)));
+                });
+    }
+
+    /**
+     * Every employee ordered by id, emitted as rows are read and only as fast as the client consumes them.
+     */
+    public Flux<EmployeeDTO> streamEmployees() {
+        return employeeRepository.findAllDTOs();
+    }
+
+    public Mono<BulkEmployeeGetDTO> searchEmployees(EmployeeSearchDTO criteria) {
+        return Mono.fromCallable(() -> {
+                    EmployeeRequestValidation.salaryRange(criteria);
+                    return EmployeeRequestValidation.pageLimit(criteria.getLimit(), defaultPageLimit, maxPageLimit);
+                })
+                .flatMap(limit -> employeeRepository.search(criteria, limit).collectList())
+                .map(BulkEmployeeGetDTO::new);
+    }
+
+    /**
+     * Answered from the in memory name index, which is filled at startup and kept up to date on every write.
+     */
+    public Mono<EmployeeNameSearchDTO> searchEmployeeNames(String query, Integer limit) {
+        return Mono.fromCallable(() -> {
+            EmployeeRequestValidation.nameQuery(query);
+            int size = limit == null ? defaultNameSearchLimit
+                    : EmployeeRequestValidation.pageLimit(limit, defaultPageLimit, maxPageLimit);
+            return new EmployeeNameSearchDTO(nameIndex.search(query, size));
+        });
+    }
+
+    public Mono<VoidResponseDTO> saveEmployee(EmployeeInfoDTO employee) {
+        return employeeRepository.insertAll(List.of(employee)).single()
+                .map(id -> {
+                    employeeCreated(id, employee.getName());
+                    changeCounter.increment();
+                    return new VoidResponseDTO(String.format(CommonResponseMessage.CREATE_SUCCESSFUL.getMessage(), EMPLOYEE, id));
+                });
+    }
+
+    /**
+     * All the given employees in one transaction, all of them or none, inserted in batches of the jdbc batch size.
+     * The in memory indexes are only updated once the transaction commits.
+     */
+    public Mono<BulkEmployeeSaveResultDTO> saveEmployees(List<EmployeeInfoDTO> employees) {
+        return Flux.fromIterable(Lists.partition(employees, batchSize))
+                .concatMap(employeeRepository::insertAll)
+                .collectList()
+                .flatMap(ids -> afterCommit(() -> {
+                    for (int i = 0; i < ids.size(); i++) {
+                        employeeCreated(ids.get(i), employees.get(i).getName());
+                    }
+                    changeCounter.increment();
+                }).thenReturn(ids))
+                .as(transactionalOperator::transactional)
+                .map(ids -> {
+                    List<EmployeeSaveResultDTO> results = new ArrayList<>(ids.size());
+                    for (Long id : ids) {
+                        results.add(new EmployeeSaveResultDTO(results.size(), id));
+                    }
+                    String response = String.format(CommonResponseMessage.BULK_CREATE_SUCCESSFUL.getMessage(), ids.size(), EMPLOYEE);
+                    return new BulkEmployeeSaveResultDTO(response, results);
+                });
+    }
+
+    /**
+     * IDs in the miss cache fail right away, an ID the database does not know is added to it. Misses are tagged
+     * with the count of committed writes read before the lookup and are not trusted once another write committed.
+     */
+    public Mono<EmployeeDTO> getEmployee(Long employeeId) {
+        return Mono.defer(() -> {
+            long changes = changeCounter.changes();
+            Long missTag = employeeMissCache.getIfPresent(employeeId);
+            if (missTag != null && missTag == changes) {
+                return Mono.error(EMPLOYEE_NOT_FOUND);
+            }
+            return Mono.fromFuture(employeeCache.get(employeeId))
+                    .switchIfEmpty(Mono.defer(() -> {
+                        employeeMissCache.put(employeeId, changes);
+                        return Mono.error(EMPLOYEE_NOT_FOUND);
+                    }));
+        });
+    }
+
+    /**
+     * Cached employees come from one bulk lookup, the others from a single IN query through the cache loader.
+     */
+    public Mono<BulkEmployeeGetDTO> getEmployees(List<Long> employeeIds) {
+        return Mono.fromCallable(() -> EmployeeRequestValidation.ids(employeeIds, maxPageLimit))
+                .flatMap(ids -> {
+                    long changes = changeCounter.changes();
+                    Map<Long, Long> knownMissing = employeeMissCache.getAllPresent(ids);
+                    List<Long> lookup = ids.stream()
+                            .filter(id -> !Long.valueOf(changes).equals(knownMissing.get(id)))
+                            .collect(Collectors.toList());
+                    return Mono.fromFuture(employeeCache.getAll(lookup)).map(found -> {
+                        lookup.stream()
+                                .filter(id -> !found.containsKey(id))
+                                .forEach(id -> employeeMissCache.put(id, changes));
+                        return new BulkEmployeeGetDTO(ids.stream()
+                                .map(found::get)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toList()));
+                    });
+                });
+    }
+
+    public Mono<VoidResponseDTO> updateEmployee(EmployeeDTO employee) {
+        return employeeRepository.updateById(employee.getId(), employee.getName(), employee.getSalary(), employee.getDepartment())
+                .flatMap(updated -> updated == 0 ? Mono.error(EMPLOYEE_NOT_FOUND) : Mono.fromCallable(() -> {
+                    evict(employee.getId());
+                    employeeMissCache.invalidate(employee.getId());
+                    nameIndex.put(employee.getId(), employee.getName());
+                    changeCounter.increment();
+                    return new VoidResponseDTO(String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, employee.getId()));
+                }));
+    }
+
+    public Mono<VoidResponseDTO> patchEmployee(Long employeeId, EmployeePatchDTO employee) {
+        return employeeRepository.updateNonNullFieldsById(employeeId, employee.getName(), employee.getSalary(), employee.getDepartment())
+                .flatMap(updated -> updated == 0 ? Mono.error(EMPLOYEE_NOT_FOUND) : Mono.fromCallable(() -> {
+                    evict(employeeId);
+                    employeeMissCache.invalidate(employeeId);
+                    if (employee.getName() != null) {
+                        nameIndex.put(employeeId, employee.getName());
+                    }
+                    changeCounter.increment();
+                    return new VoidResponseDTO(String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeId));
+                }));
+    }
+
+    public Mono<VoidResponseDTO> deleteEmployee(Long employeeId) {
+        return employeeRepository.removeById(employeeId)
+                .flatMap(deleted -> deleted == 0 ? Mono.error(EMPLOYEE_NOT_FOUND) : Mono.fromCallable(() -> {
+                    evict(employeeId);
+                    nameIndex.remove(employeeId);
+                    changeCounter.increment();
+                    return new VoidResponseDTO(String.format(CommonResponseMessage.DELETE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeId));
+                }));
+    }
+
+    /**
+     * Run the action once the current reactive transaction commits, so a rolled back write never reaches
+     * the in memory indexes.
+     */
+    private Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .doOnNext(manager -> manager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return Mono.fromRunnable(action);
+                    }
+                }))
+                .then();
+    }
+
+    private void evict(Long employeeId) {
+        employeeCache.synchronous().invalidate(employeeId);
+    }
+
+    /**
+     * A new ID may have been looked up before it existed, so it must not be reported missing any more.
+     */
+    private void employeeCreated(Long employeeId, String name) {
+        employeeMissCache.invalidate(employeeId);
+        nameIndex.put(employeeId, name);
+    }
+}
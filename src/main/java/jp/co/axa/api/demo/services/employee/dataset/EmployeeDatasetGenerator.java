@@ -0,0 +1,65 @@
+package jp.co.axa.api.demo.services.employee.dataset;
+
+import jp.co.axa.api.demo.entities.employee.Employee;
+
+import java.util.Random;
+
+/**
+ * Seeded generator of synthetic employees. Departments are drawn with the weights of a typical company, salaries
+ * from a log-normal distribution around the median of the department, names from common first and last names.
+ * The same seed gives the same employees in the same order.
+ */
+public class EmployeeDatasetGenerator {
+
+    static final String[] DEPARTMENTS = {"Engineering", "Sales", "Operations", "Customer Support", "Finance",
+            "Marketing", "HR", "Legal"};
+    private static final int[] DEPARTMENT_WEIGHTS = {30, 20, 15, 12, 8, 7, 5, 3};
+    private static final int[] MEDIAN_SALARIES = {7500, 5500, 4500, 3800, 6500, 5800, 4800, 8000};
+    private static final double SALARY_SIGMA = 0.35;
+    static final int MIN_SALARY = 1500;
+
+    private static final String[] FIRST_NAMES = {"Hiroshi", "Yuki", "Aiko", "Kenji", "Sakura", "Takumi", "Haruto",
+            "Yui", "Ren", "Mei", "Sota", "Hina", "Daiki", "Riko", "Kaito", "Emma", "Liam", "Olivia", "Noah", "Ava",
+            "Lucas", "Mia", "Ethan", "Sophia", "Mateo", "Chloe", "Arjun", "Priya", "Wei", "Min-jun", "Rohan", "Anika",
+            "Omar", "Fatima", "Diego", "Lucia", "Ivan", "Elena", "Kwame", "Amara"};
+    private static final String[] LAST_NAMES = {"Sato", "Suzuki", "Takahashi", "Tanaka", "Watanabe", "Ito",
+            "Yamamoto", "Nakamura", "Kobayashi", "Kato", "Yoshida", "Yamada", "Sasaki", "Matsumoto", "Inoue",
+            "Smith", "Johnson", "Williams", "Brown", "Garcia", "Miller", "Davis", "Martinez", "Lopez", "Wilson",
+            "Patel", "Sharma", "Gupta", "Chen", "Wang", "Kim", "Park", "Nguyen", "Khan", "Silva", "Rossi", "Muller",
+            "Novak", "Mensah", "Okafor"};
+
+    private final Random random;
+
+    private final int totalWeight;
+
+    public EmployeeDatasetGenerator(long seed) {
+        this.random = new Random(seed);
+        int total = 0;
+        for (int weight : DEPARTMENT_WEIGHTS) {
+            total += weight;
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Next employee, with the given id and the first version.
+     */
+    public Employee next(long id) {
+        int department = department();
+        int salary = (int) Math.max(MIN_SALARY,
+                Math.round(MEDIAN_SALARIES[department] * Math.exp(SALARY_SIGMA * random.nextGaussian())));
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return new Employee(id, name, salary, DEPARTMENTS[department], 0L);
+    }
+
+    private int department() {
+        int pick = random.nextInt(totalWeight);
+        for (int i = 0; i < DEPARTMENT_WEIGHTS.length; i++) {
+            pick -= DEPARTMENT_WEIGHTS[i];
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return DEPARTMENT_WEIGHTS.length - 1;
+    }
+}
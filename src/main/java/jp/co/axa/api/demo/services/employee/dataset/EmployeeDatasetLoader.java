@@ -0,0 +1,91 @@
+package jp.co.axa.api.demo.services.employee.dataset;
+
+import jp.co.axa.api.demo.configuration.DatasetProperties;
+import jp.co.axa.api.demo.entities.employee.Employee;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import jp.co.axa.api.demo.services.employee.index.EmployeeNameIndexLoader;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the employee table with {@code api.demo.dataset.rows} synthetic employees while the application starts,
+ * in the phase before {@link EmployeeNameIndexLoader} so the name index is loaded from it, and before the web
+ * server takes requests.
+ * <p>
+ * Rows are written with plain JDBC batches, one transaction per batch, instead of through hibernate, which would
+ * keep every entity in the persistence context. Ids are assigned here, the sequence is then moved past them so
+ * the pooled optimizer of {@link Employee} does not hand them out again.
+ */
+@Slf4j
+@Component
+@Profile("scale-test & !reactive")
+@EnableConfigurationProperties(DatasetProperties.class)
+@RequiredArgsConstructor
+public class EmployeeDatasetLoader implements SmartLifecycle {
+
+    private static final String INSERT = "INSERT INTO EMPLOYEE (ID, EMPLOYEE_NAME, EMPLOYEE_SALARY, DEPARTMENT, VERSION) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final long LOG_EVERY_ROWS = 1_000_000;
+
+    @NonNull
+    private final DatasetProperties datasetProperties;
+    @NonNull
+    private final JdbcTemplate jdbcTemplate;
+    @NonNull
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(ID), 0) FROM EMPLOYEE", Long.class) + 1;
+        long lastId = firstId + datasetProperties.getRows() - 1;
+        EmployeeDatasetGenerator generator = new EmployeeDatasetGenerator(datasetProperties.getSeed());
+        List<Object[]> batch = new ArrayList<>(datasetProperties.getBatchSize());
+        for (long id = firstId; id <= lastId; id++) {
+            Employee employee = generator.next(id);
+            batch.add(new Object[]{employee.getId(), employee.getName(), employee.getSalary(), employee.getDepartment(),
+                    employee.getVersion()});
+            if (batch.size() == datasetProperties.getBatchSize() || id == lastId) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, batch));
+                batch.clear();
+            }
+            if ((id - firstId + 1) % LOG_EVERY_ROWS == 0) {
+                log.info("Employee dataset: {} rows loaded", id - firstId + 1);
+            }
+        }
+        //the pooled optimizer takes the sequence value as the last id of its block, the first block starts after lastId
+        jdbcTemplate.execute("ALTER SEQUENCE EMPLOYEE_SEQ RESTART WITH " + (lastId + Employee.ID_ALLOCATION_SIZE));
+        log.info("Employee dataset of {} rows loaded in {} ms", datasetProperties.getRows(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return EmployeeNameIndexLoader.PHASE - 1;
+    }
+}
@@ -0,0 +1,325 @@
+package jp.co.axa.api.demo.services.employee.index;
+
+import jp.co.axa.api.demo.dto.employee.EmployeeNameDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory index of employee names for type-ahead search, case insensitive.
+ * <p>
+ * Names are kept in a sorted map for prefix lookups and are split into trigrams for substring lookups.
+ * A substring query walks the shortest posting list among its trigrams, skips the ids missing from the other
+ * postings and checks the remaining candidates, stopping as soon as enough matches are found. Its cost grows with
+ * the length of that posting list: a query made of common trigrams that matches few names walks all of it.
+ * Queries shorter than a trigram only match name prefixes.
+ * <p>
+ * Postings are sorted by id, so a write finds an id by binary search rather than scanning the posting.
+ * Reads share a lock, writes (one per created, updated or deleted employee) take it exclusively.
+ * <p>
+ * While the index is loaded from the database, see {@link #startLoad()}, the writes of the employee service
+ * win over the loaded rows, which may have been read before them.
+ */
+@Component
+public class EmployeeNameIndex {
+
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedName> names = new HashMap<>();
+    private final NavigableMap<String, LongList> prefixes = new TreeMap<>();
+    private final Map<Long, LongList> trigrams = new HashMap<>();
+    /**
+     * Ids written since the load started, null when no load is running.
+     */
+    private Set<Long> writtenDuringLoad;
+
+    /**
+     * Add the employee to the index, or replace its name if it is already there.
+     */
+    public void put(Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringLoad != null) {
+                writtenDuringLoad.add(id);
+            }
+            replaceIndexed(id, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringLoad != null) {
+                writtenDuringLoad.add(id);
+            }
+            removeIndexed(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empty the index for a load from the database. Until {@link #finishLoad()}, the rows given to
+     * {@link #putLoaded(Long, String)} are skipped for the employees created, updated or deleted in the meantime.
+     */
+    public void startLoad() {
+        lock.writeLock().lock();
+        try {
+            clearIndexed();
+            writtenDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A row read by the load, ignored if the employee was written since the load started.
+     */
+    public void putLoaded(Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringLoad == null || !writtenDuringLoad.contains(id)) {
+                replaceIndexed(id, name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearIndexed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Employees whose name contains the query, names starting with it come first in alphabetical order.
+     *
+     * @param query part of the name, case insensitive
+     * @param limit maximum number of employees returned
+     * @return at most limit matching employees
+     */
+    public List<EmployeeNameDTO> search(String query, int limit) {
+        List<EmployeeNameDTO> matches = new ArrayList<>();
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit < 1) {
+            return matches;
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> found = new HashSet<>();
+            collectPrefixMatches(normalized, limit, matches, found);
+            if (matches.size() < limit && normalized.length() >= GRAM) {
+                collectSubstringMatches(normalized, limit, matches, found);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    private void collectPrefixMatches(String normalized, int limit, List<EmployeeNameDTO> matches, Set<Long> found) {
+        for (LongList ids : prefixes.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            for (int i = 0; i < ids.size(); i++) {
+                if (matches.size() >= limit) {
+                    return;
+                }
+                long id = ids.get(i);
+                found.add(id);
+                matches.add(new EmployeeNameDTO(id, names.get(id).name));
+            }
+        }
+    }
+
+    private void collectSubstringMatches(String normalized, int limit, List<EmployeeNameDTO> matches, Set<Long> found) {
+        long[] queryTrigrams = trigramsOf(normalized);
+        LongList[] postings = new LongList[queryTrigrams.length];
+        for (int i = 0; i < queryTrigrams.length; i++) {
+            postings[i] = trigrams.get(queryTrigrams[i]);
+            if (postings[i] == null) {
+                return;
+            }
+        }
+        Arrays.sort(postings, Comparator.comparingInt(LongList::size));
+        LongList candidates = postings[0];
+        for (int i = 0; i < candidates.size() && matches.size() < limit; i++) {
+            long id = candidates.get(i);
+            if (found.contains(id) || !inAll(postings, id)) {
+                continue;
+            }
+            IndexedName indexedName = names.get(id);
+            if (indexedName.normalized.contains(normalized)) {
+                found.add(id);
+                matches.add(new EmployeeNameDTO(id, indexedName.name));
+            }
+        }
+    }
+
+    private static boolean inAll(LongList[] postings, long id) {
+        for (int i = 1; i < postings.length; i++) {
+            if (!postings[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void replaceIndexed(long id, String name) {
+        removeIndexed(id);
+        if (name != null) {
+            addIndexed(id, name);
+        }
+    }
+
+    private void clearIndexed() {
+        names.clear();
+        prefixes.clear();
+        trigrams.clear();
+    }
+
+    private void addIndexed(long id, String name) {
+        IndexedName indexedName = new IndexedName(name, normalize(name));
+        names.put(id, indexedName);
+        prefixes.computeIfAbsent(indexedName.normalized, key -> new LongList()).add(id);
+        for (long trigram : trigramsOf(indexedName.normalized)) {
+            trigrams.computeIfAbsent(trigram, key -> new LongList()).add(id);
+        }
+    }
+
+    private void removeIndexed(long id) {
+        IndexedName indexedName = names.remove(id);
+        if (indexedName == null) {
+            return;
+        }
+        removeFromPosting(prefixes, indexedName.normalized, id);
+        for (long trigram : trigramsOf(indexedName.normalized)) {
+            removeFromPosting(trigrams, trigram, id);
+        }
+    }
+
+    private static <K> void removeFromPosting(Map<K, LongList> postings, K key, long id) {
+        LongList posting = postings.get(key);
+        if (posting != null && posting.remove(id) && posting.size() == 0) {
+            postings.remove(key);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of the text, each packed in a long (three 16 bit chars).
+     */
+    private static long[] trigramsOf(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] keys = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    private static final class IndexedName {
+        private final String name;
+        private final String normalized;
+
+        private IndexedName(String name, String normalized) {
+            this.name = name;
+            this.normalized = normalized;
+        }
+    }
+
+    /**
+     * Ascending list of primitive ids, avoids boxing one Long per posting entry.
+     * New ids come from the sequence, so adding is mostly an append.
+     */
+    private static final class LongList {
+        private long[] values = new long[2];
+        private int size;
+
+        private void add(long value) {
+            int index = size;
+            if (size > 0 && values[size - 1] >= value) {
+                index = Arrays.binarySearch(values, 0, size, value);
+                if (index >= 0) {
+                    return;
+                }
+                index = -index - 1;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+        }
+
+        private boolean remove(long value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        private boolean contains(long value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        private long get(int index) {
+            return values[index];
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package jp.co.axa.api.demo.services.employee.index;
+
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.repositories.employee.EmployeeRepository;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Fills the name index from the database while the application starts, before the web server takes requests:
+ * lifecycles start by phase and the web server is started last. After that the index is kept up to date by the
+ * employee service on every write.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeNameIndexLoader implements SmartLifecycle {
+
+    /**
+     * Before the web server, which starts in phase {@code Integer.MAX_VALUE - 1}.
+     */
+    public static final int PHASE = 0;
+
+    @NonNull
+    private final EmployeeRepository employeeRepository;
+    @NonNull
+    private final EmployeeNameIndex nameIndex;
+    @NonNull
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        nameIndex.startLoad();
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<EmployeeDTO> employees = employeeRepository.streamAllDTOs()) {
+                    employees.forEach(employee -> nameIndex.putLoaded(employee.getId(), employee.getName()));
+                }
+            });
+        } finally {
+            nameIndex.finishLoad();
+        }
+        log.info("Employee name index loaded with {} names in {} ms", nameIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,57 @@
+package jp.co.axa.api.demo.services.employee.index;
+
+import jp.co.axa.api.demo.repositories.employee.ReactiveEmployeeRepository;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link EmployeeNameIndexLoader} of the reactive profile. Blocks the startup thread until the index
+ * is filled, before the web server is started, so no request is answered from a half loaded index.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveEmployeeNameIndexLoader implements SmartLifecycle {
+
+    @NonNull
+    private final ReactiveEmployeeRepository employeeRepository;
+    @NonNull
+    private final EmployeeNameIndex nameIndex;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        long start = System.nanoTime();
+        nameIndex.startLoad();
+        try {
+            employeeRepository.findAllDTOs()
+                    .doOnNext(employee -> nameIndex.putLoaded(employee.getId(), employee.getName()))
+                    .blockLast();
+        } finally {
+            nameIndex.finishLoad();
+        }
+        log.info("Employee name index loaded with {} names in {} ms", nameIndex.size(), (System.nanoTime() - start) / 1_000_000);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return EmployeeNameIndexLoader.PHASE;
+    }
+}
@@ -0,0 +1,14 @@
+-- Same table and indexes hibernate creates for the servlet stack.
+-- Ids come straight from the sequence, one per insert, as there is no pooled optimizer in front of it.
+create sequence if not exists EMPLOYEE_SEQ start with 1 increment by 1;
+
+create table if not exists EMPLOYEE (
+    ID bigint default next value for EMPLOYEE_SEQ primary key,
+    DEPARTMENT varchar(255),
+    EMPLOYEE_NAME varchar(255),
+    EMPLOYEE_SALARY integer,
+    VERSION bigint not null
+);
+
+create index if not exists IDX_EMPLOYEE_DEPARTMENT_SALARY on EMPLOYEE (DEPARTMENT, EMPLOYEE_SALARY);
+create index if not exists IDX_EMPLOYEE_SALARY on EMPLOYEE (EMPLOYEE_SALARY);
@@ -0,0 +1,474 @@
+package jp.co.axa.api.demo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.co.axa.api.demo.ApiDemoApplication;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSaveResultDTO;
+import lombok.SneakyThrows;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End to end load test of every employee endpoint. Starts the application on a random port, creates the dataset
+ * through the bulk insert, then sends a weighted mix of reads as {@code user} and writes as {@code admin}.
+ * <p>
+ * {@code -Dbenchmark.mode=closed} (default) runs {@code benchmark.concurrency} clients that each send their next
+ * request once the previous one is answered. {@code -Dbenchmark.mode=open} sends {@code benchmark.rate} requests a
+ * second whatever the response times, and measures latency from the time a request was due, so a stalled server is
+ * not hidden by clients waiting on it.
+ * <p>
+ * Throughput and p50/p99/p99.9 latency of every operation are printed, and their HdrHistogram percentile
+ * distributions written to {@code benchmark.report-dir}. The mix is {@code -Dbenchmark.mix=get=50,page=10,...},
+ * operations left out are not sent. Not part of the build, run with
+ * {@code mvn test -Pbenchmark -Dtest=LoadGeneratorBenchmark}.
+ */
+@Tag("benchmark")
+public class LoadGeneratorBenchmark {
+
+    private static final String DEFAULT_MIX =
+            "get=50,page=8,fields=4,ids=4,search=4,names=5,stream=1,create=5,bulk=1,put=8,patch=6,delete=4";
+
+    private static final String PROFILE = System.getProperty("benchmark.profile", "dev");
+    private static final String MODE = System.getProperty("benchmark.mode", "closed");
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 64);
+    private static final int RATE = Integer.getInteger("benchmark.rate", 500);
+    private static final int EMPLOYEES = Integer.getInteger("benchmark.employees", 10_000);
+    private static final String MIX = System.getProperty("benchmark.mix", DEFAULT_MIX);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.seconds", 30));
+    private static final boolean ADMISSION = Boolean.getBoolean("benchmark.admission");
+    private static final String REPORT_DIR = System.getProperty("benchmark.report-dir", "target/load-report");
+
+    private static final String URL_TEMPLATE = "/api/v1/employees/";
+    private static final String USER = basicAuth("user", "user");
+    private static final String ADMIN = basicAuth("admin", "admin");
+    private static final int DEPARTMENTS = 20;
+    private static final int BULK_SIZE = 10;
+    private static final int IDS_PER_REQUEST = 20;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void load() {
+        Mix mix = new Mix(MIX);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiDemoApplication.class)
+                .run("--spring.profiles.active=" + PROFILE, "--server.port=0", "--logging.level.root=WARN",
+                        //the dev profile traces spring security, which would be measured instead of the api
+                        "--logging.level.org.springframework.security=WARN",
+                        //one principal per role sends everything, its rate limit would be measured instead of the api
+                        "--api.demo.admission.enabled=" + ADMISSION)) {
+            Workload workload = new Workload("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + URL_TEMPLATE);
+            workload.seed();
+
+            run(workload, mix, WARMUP);
+            Stats stats = run(workload, mix, MEASUREMENT);
+            stats.print(System.out);
+            stats.write(Paths.get(REPORT_DIR));
+        }
+    }
+
+    private Stats run(Workload workload, Mix mix, Duration duration) {
+        Stats stats = new Stats(duration);
+        if ("open".equals(MODE)) {
+            openLoop(workload, mix, stats, duration);
+        } else {
+            closedLoop(workload, mix, stats, duration);
+        }
+        return stats;
+    }
+
+    private void closedLoop(Workload workload, Mix mix, Stats stats, Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<CompletableFuture<Void>> clients = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            next(workload, mix, stats, deadline, done);
+            clients.add(done);
+        }
+        CompletableFuture.allOf(clients.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * One client of the closed loop: sends its next request as soon as the previous one is answered.
+     */
+    private void next(Workload workload, Mix mix, Stats stats, long deadline, CompletableFuture<Void> done) {
+        if (System.nanoTime() >= deadline) {
+            done.complete(null);
+            return;
+        }
+        send(workload, mix.next(), stats, System.nanoTime())
+                .whenComplete((ignored, failure) -> next(workload, mix, stats, deadline, done));
+    }
+
+    /**
+     * Requests are due at a constant rate. Latency counts from the due time, not from the time the request could
+     * be sent, so requests delayed behind a slow one are measured as late as they are.
+     */
+    private void openLoop(Workload workload, Mix mix, Stats stats, Duration duration) {
+        long interval = Math.max(1, 1_000_000_000L / RATE);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        for (long due = start; due < end; due += interval) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            requests.add(send(workload, mix.next(), stats, due));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).join();
+    }
+
+    private CompletableFuture<Void> send(Workload workload, Operation operation, Stats stats, long start) {
+        return client.sendAsync(operation.request(workload), HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, failure) -> {
+                    int status = failure == null ? response.statusCode() : 0;
+                    stats.record(operation, System.nanoTime() - start, status);
+                    if (operation == Operation.BULK && status == 201) {
+                        workload.created(response.body());
+                    }
+                    return null;
+                });
+    }
+
+    private static String basicAuth(String user, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Operations of the mix, one per endpoint and query form. Reads are sent as {@code user}, writes as {@code admin}.
+     */
+    private enum Operation {
+        GET("get", Workload::getEmployee),
+        PAGE("page", Workload::page),
+        FIELDS("fields", Workload::fields),
+        IDS("ids", Workload::ids),
+        SEARCH("search", Workload::search),
+        NAMES("names", Workload::names),
+        STREAM("stream", Workload::stream),
+        CREATE("create", Workload::create),
+        BULK("bulk", Workload::bulk),
+        PUT("put", Workload::put),
+        PATCH("patch", Workload::patch),
+        DELETE("delete", Workload::delete);
+
+        private final String key;
+
+        private final Function<Workload, HttpRequest> request;
+
+        Operation(String key, Function<Workload, HttpRequest> request) {
+            this.key = key;
+            this.request = request;
+        }
+
+        HttpRequest request(Workload workload) {
+            return request.apply(workload);
+        }
+
+        /**
+         * Deletes run out of employees created by the load itself, their 404 is an answer as expected as a 200.
+         */
+        boolean succeeded(int status) {
+            return status >= 200 && status < 300 || this == DELETE && status == 404;
+        }
+
+        static Operation of(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation " + key + " in benchmark.mix");
+        }
+    }
+
+    /**
+     * Weighted choice of the next operation.
+     */
+    private static final class Mix {
+
+        private final Operation[] operations;
+
+        private final int[] cumulativeWeights;
+
+        private Mix(String mix) {
+            List<String[]> entries = new ArrayList<>();
+            for (String entry : mix.split(",")) {
+                String[] keyAndWeight = entry.trim().split("=");
+                if (Integer.parseInt(keyAndWeight[1].trim()) > 0) {
+                    entries.add(keyAndWeight);
+                }
+            }
+            operations = new Operation[entries.size()];
+            cumulativeWeights = new int[entries.size()];
+            int total = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                operations[i] = Operation.of(entries.get(i)[0].trim());
+                total += Integer.parseInt(entries.get(i)[1].trim());
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        Operation next() {
+            int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (pick < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+    }
+
+    /**
+     * The dataset and the requests sent against it. Reads and updates go to the seeded employees, which are never
+     * deleted; deletes take employees created for that purpose, at seeding and by the bulk inserts of the load.
+     */
+    private final class Workload {
+
+        private final String baseUrl;
+
+        private final List<Long> ids = new ArrayList<>();
+
+        private final ConcurrentLinkedQueue<Long> disposableIds = new ConcurrentLinkedQueue<>();
+
+        private Workload(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        @SneakyThrows
+        void seed() {
+            for (int from = 0; from < EMPLOYEES; from += BulkEmployeeSaveDTO.MAX_EMPLOYEES) {
+                ids.addAll(insert(from, Math.min(EMPLOYEES, from + BulkEmployeeSaveDTO.MAX_EMPLOYEES)));
+            }
+            assertEquals(EMPLOYEES, ids.size(), "employees were not all created");
+            disposableIds.addAll(insert(EMPLOYEES, EMPLOYEES + Math.max(100, EMPLOYEES / 10)));
+        }
+
+        private List<Long> insert(int from, int to) throws Exception {
+            HttpResponse<byte[]> response = client.send(json(baseUrl + "bulk", "POST", new BulkEmployeeSaveDTO(
+                    IntStream.range(from, to).mapToObj(this::employee).collect(Collectors.toList()))),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(201, response.statusCode(), "seeding failed");
+            return ids(response.body());
+        }
+
+        @SneakyThrows
+        void created(byte[] body) {
+            disposableIds.addAll(ids(body));
+        }
+
+        private List<Long> ids(byte[] body) throws Exception {
+            return mapper.readValue(body, BulkEmployeeSaveResultDTO.class).getResults().stream()
+                    .map(EmployeeSaveResultDTO::getId)
+                    .collect(Collectors.toList());
+        }
+
+        private EmployeeInfoDTO employee(int i) {
+            return new EmployeeInfoDTO("Employee " + i, 1000 + i % 9000, department(i));
+        }
+
+        private String department(int i) {
+            return "Department " + i % DEPARTMENTS;
+        }
+
+        private Long anyId() {
+            return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        private int anyIndex() {
+            return ThreadLocalRandom.current().nextInt(EMPLOYEES);
+        }
+
+        HttpRequest getEmployee() {
+            return get(baseUrl + anyId());
+        }
+
+        HttpRequest page() {
+            return get(baseUrl + "?limit=50&after=" + anyId());
+        }
+
+        HttpRequest fields() {
+            return get(baseUrl + "?fields=name,department&limit=50&after=" + anyId());
+        }
+
+        HttpRequest ids() {
+            String list = IntStream.range(0, IDS_PER_REQUEST).mapToObj(i -> String.valueOf(anyId()))
+                    .collect(Collectors.joining(","));
+            return get(baseUrl + "?ids=" + list);
+        }
+
+        HttpRequest search() {
+            int minSalary = 1000 + ThreadLocalRandom.current().nextInt(8000);
+            return get(baseUrl + "search?department=" + encode(department(anyIndex())) + "&minSalary=" + minSalary
+                    + "&maxSalary=" + (minSalary + 1000) + "&sort=SALARY&direction=DESC&limit=50");
+        }
+
+        HttpRequest names() {
+            return get(baseUrl + "names?limit=10&query=" + encode("employee " + anyIndex() / 10));
+        }
+
+        HttpRequest stream() {
+            return get(baseUrl + "stream");
+        }
+
+        HttpRequest create() {
+            return json(baseUrl, "POST", employee(anyIndex()));
+        }
+
+        HttpRequest bulk() {
+            int from = anyIndex();
+            return json(baseUrl + "bulk", "POST", new BulkEmployeeSaveDTO(
+                    IntStream.range(from, from + BULK_SIZE).mapToObj(this::employee).collect(Collectors.toList())));
+        }
+
+        HttpRequest put() {
+            int index = anyIndex();
+            return json(baseUrl, "PUT", new EmployeeDTO("Employee " + index, 1000 + index % 9000, department(index), ids.get(index)));
+        }
+
+        HttpRequest patch() {
+            return json(baseUrl + anyId(), "PATCH", new EmployeePatchDTO(null, 1000 + ThreadLocalRandom.current().nextInt(9000), null));
+        }
+
+        HttpRequest delete() {
+            Long id = disposableIds.poll();
+            return HttpRequest.newBuilder(URI.create(baseUrl + (id == null ? Long.MAX_VALUE : id)))
+                    .header("Authorization", ADMIN).DELETE().build();
+        }
+
+        private HttpRequest get(String url) {
+            return HttpRequest.newBuilder(URI.create(url)).header("Authorization", USER).GET().build();
+        }
+
+        @SneakyThrows
+        private HttpRequest json(String url, String method, Object body) {
+            return HttpRequest.newBuilder(URI.create(url))
+                    .header("Authorization", ADMIN)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                    .build();
+        }
+
+        private String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Latencies, in nanoseconds, and failures of every operation.
+     */
+    private static final class Stats {
+
+        private final Duration duration;
+
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+
+        private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+
+        private final Map<Integer, LongAdder> failedStatuses = new ConcurrentHashMap<>();
+
+        private Stats(Duration duration) {
+            this.duration = duration;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new ConcurrentHistogram(3));
+                failures.put(operation, new LongAdder());
+            }
+        }
+
+        void record(Operation operation, long latencyNanos, int status) {
+            latencies.get(operation).recordValue(latencyNanos);
+            if (!operation.succeeded(status)) {
+                failures.get(operation).increment();
+                failedStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            }
+        }
+
+        void print(PrintStream out) {
+            out.printf("%s loop, %s profile, %d employees, %ds%n", MODE, PROFILE, EMPLOYEES, duration.getSeconds());
+            out.printf("%-8s %9s %11s %9s %9s %9s %9s %8s%n", "", "requests", "requests/s", "p50 ms", "p99 ms",
+                    "p99.9 ms", "max ms", "failed");
+            Histogram total = new Histogram(3);
+            long totalFailures = 0;
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = latencies.get(operation);
+                if (histogram.getTotalCount() > 0) {
+                    print(out, operation.key, histogram, failures.get(operation).sum());
+                    total.add(histogram);
+                    totalFailures += failures.get(operation).sum();
+                }
+            }
+            print(out, "total", total, totalFailures);
+            if (!failedStatuses.isEmpty()) {
+                out.println("failed statuses (0 is no response): " + failedStatuses.entrySet().stream()
+                        .map(entry -> entry.getKey() + "=" + entry.getValue().sum())
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+
+        private void print(PrintStream out, String name, Histogram histogram, long failed) {
+            out.printf(Locale.ROOT, "%-8s %9d %11.0f %9.2f %9.2f %9.2f %9.2f %8d%n", name, histogram.getTotalCount(),
+                    histogram.getTotalCount() * 1000.0 / duration.toMillis(),
+                    histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                    histogram.getMaxValue() / NANOS_PER_MILLI, failed);
+        }
+
+        /**
+         * One percentile distribution per operation, in milliseconds, in the format of the HdrHistogram plotter.
+         */
+        @SneakyThrows
+        void write(Path directory) {
+            Files.createDirectories(directory);
+            for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+                if (entry.getValue().getTotalCount() > 0) {
+                    try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().key + ".hgrm")))) {
+                        entry.getValue().outputPercentileDistribution(out, NANOS_PER_MILLI);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package jp.co.axa.api.demo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.co.axa.api.demo.ApiDemoApplication;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSaveResultDTO;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput and latency of the servlet stack against the reactive one, each started on a random port and
+ * loaded by the same closed loop of concurrent clients: 90% single employee reads, 10% page reads.
+ * <p>
+ * Not part of the build, run with {@code mvn test -Pbenchmark}. Tune with {@code -Dbenchmark.concurrency},
+ * {@code -Dbenchmark.employees}, {@code -Dbenchmark.warmup-seconds} and {@code -Dbenchmark.seconds}.
+ */
+@Tag("benchmark")
+public class StackComparisonBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 256);
+    private static final int EMPLOYEES = Integer.getInteger("benchmark.employees", 1000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.seconds", 30));
+
+    private static final String URL_TEMPLATE = "/api/v1/employees/";
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void servletVersusReactive() {
+        List<Result> results = Arrays.asList(run("dev"), run("reactive"));
+        System.out.printf("%-10s %11s %9s %9s %9s %8s%n", "stack", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+        results.forEach(result -> System.out.printf("%-10s %11.0f %9.2f %9.2f %9.2f %8d%n", result.profile,
+                result.throughput(), result.percentile(50), result.percentile(99), result.percentile(100), result.errors.sum()));
+        results.forEach(result -> assertEquals(0, result.errors.sum(), result.profile + " had failed requests"));
+    }
+
+    @SneakyThrows
+    private Result run(String profile) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiDemoApplication.class)
+                .run("--spring.profiles.active=" + profile, "--server.port=0", "--logging.level.root=WARN",
+                        //the dev profile traces spring security, which would be measured instead of the api
+                        "--logging.level.org.springframework.security=WARN",
+                        //one principal sends everything, its rate limit would be measured instead of the stack
+                        "--api.demo.admission.enabled=false")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + URL_TEMPLATE;
+            HttpClient client = HttpClient.newHttpClient();
+            List<Long> ids = seed(client, baseUrl);
+            load(profile, client, baseUrl, ids, WARMUP);
+            return load(profile, client, baseUrl, ids, MEASUREMENT);
+        }
+    }
+
+    private List<Long> seed(HttpClient client, String baseUrl) throws Exception {
+        List<EmployeeInfoDTO> employees = IntStream.range(0, EMPLOYEES)
+                .mapToObj(i -> new EmployeeInfoDTO("Employee " + i, 1000 + i, "Department " + i % 20))
+                .collect(Collectors.toList());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "bulk"))
+                .header("Authorization", basicAuth("admin", "admin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(new BulkEmployeeSaveDTO(employees))))
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        return mapper.readValue(response.body(), BulkEmployeeSaveResultDTO.class).getResults().stream()
+                .map(EmployeeSaveResultDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Result load(String profile, HttpClient client, String baseUrl, List<Long> ids, Duration duration) {
+        Result result = new Result(profile, duration);
+        long deadline = System.nanoTime() + duration.toNanos();
+        String authorization = basicAuth("user", "user");
+        List<CompletableFuture<Void>> clients = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            next(client, baseUrl, ids, authorization, deadline, result, done);
+            clients.add(done);
+        }
+        CompletableFuture.allOf(clients.toArray(new CompletableFuture[0])).join();
+        return result;
+    }
+
+    /**
+     * One client of the closed loop: sends its next request as soon as the previous one is answered.
+     */
+    private void next(HttpClient client, String baseUrl, List<Long> ids, String authorization, long deadline,
+                      Result result, CompletableFuture<Void> done) {
+        if (System.nanoTime() >= deadline) {
+            done.complete(null);
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long id = ids.get(random.nextInt(ids.size()));
+        String url = random.nextInt(10) == 0 ? baseUrl + "?limit=50&after=" + id : baseUrl + id;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("Authorization", authorization).GET().build();
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            result.latencies.add(System.nanoTime() - start);
+            if (failure != null || response.statusCode() != 200) {
+                result.errors.increment();
+            }
+            next(client, baseUrl, ids, authorization, deadline, result, done);
+        });
+    }
+
+    private static String basicAuth(String user, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Result {
+        private final String profile;
+        private final Duration duration;
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+        private long[] sorted;
+
+        private Result(String profile, Duration duration) {
+            this.profile = profile;
+            this.duration = duration;
+        }
+
+        double throughput() {
+            return latencies.size() * 1000.0 / duration.toMillis();
+        }
+
+        double percentile(double percentile) {
+            if (sorted == null) {
+                sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            }
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
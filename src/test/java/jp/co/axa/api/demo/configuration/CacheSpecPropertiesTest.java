@@ -0,0 +1,49 @@
+package jp.co.axa.api.demo.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheSpecPropertiesTest {
+
+    @Test
+    public void toBuilderTest_MaximumWeight() {
+        CacheSpecProperties.CacheSpec spec = new CacheSpecProperties.CacheSpec();
+        spec.setMaximumWeight(1_000L);
+        spec.setExpireAfterWrite(Duration.ofMinutes(5));
+        spec.setRecordStats(true);
+
+        Cache<Object, Object> cache = spec.toBuilder().build();
+        assertTrue(cache.policy().eviction().get().isWeighted());
+        assertEquals(1_000L, cache.policy().eviction().get().getMaximum());
+        assertEquals(Duration.ofMinutes(5).toNanos(), cache.policy().expireAfterWrite().get().getExpiresAfter().toNanos());
+        cache.getIfPresent(1L);
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void toBuilderTest_MaximumSize() {
+        CacheSpecProperties.CacheSpec spec = new CacheSpecProperties.CacheSpec();
+        spec.setMaximumSize(10L);
+
+        Cache<Object, Object> cache = spec.toBuilder().build();
+        assertFalse(cache.policy().eviction().get().isWeighted());
+        assertFalse(cache.policy().expireAfterWrite().isPresent());
+    }
+
+    @Test
+    public void weighTest() {
+        CacheEntryWeigher weigher = new CacheEntryWeigher();
+        int latin = weigher.weigh(1L, new EmployeeDTO("Hashimoto", 1000, "HR", 1L));
+        int wide = weigher.weigh(1L, new EmployeeDTO("橋本一二三", 1000, "HR", 1L));
+        //five wide chars take as much as ten latin ones
+        assertEquals(latin + 1, wide);
+        assertTrue(weigher.weigh(1L, Boolean.TRUE) < latin);
+    }
+}
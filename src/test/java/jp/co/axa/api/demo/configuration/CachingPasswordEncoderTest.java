@@ -0,0 +1,66 @@
+package jp.co.axa.api.demo.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CachingPasswordEncoderTest {
+
+    private static final String PASSWORD = "s3cret";
+
+    private PasswordEncoder delegate;
+    private CaffeineCache cache;
+    private CachingPasswordEncoder encoder;
+    private String encoded;
+
+    @BeforeEach
+    void initialize() {
+        delegate = spy(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        cache = new CaffeineCache(CacheConfiguration.CREDENTIAL_CACHE, Caffeine.newBuilder().maximumSize(10).build());
+        encoder = new CachingPasswordEncoder(delegate, cache);
+        encoded = encoder.encode(PASSWORD);
+    }
+
+    @Test
+    public void matchesTest_SuccessIsCached() {
+        assertTrue(encoder.matches(PASSWORD, encoded));
+        assertTrue(encoder.matches(PASSWORD, encoded));
+        assertTrue(encoder.matches(PASSWORD, encoded));
+        verify(delegate, times(1)).matches(PASSWORD, encoded);
+    }
+
+    @Test
+    public void matchesTest_FailureIsNotCached() {
+        assertFalse(encoder.matches("wrong", encoded));
+        assertFalse(encoder.matches("wrong", encoded));
+        verify(delegate, times(2)).matches("wrong", encoded);
+        assertEquals(0, cache.getNativeCache().estimatedSize());
+    }
+
+    @Test
+    public void matchesTest_OtherHashIsCheckedAgain() {
+        assertTrue(encoder.matches(PASSWORD, encoded));
+        String changed = encoder.encode("changed");
+        assertFalse(encoder.matches(PASSWORD, changed));
+        assertTrue(encoder.matches("changed", changed));
+    }
+
+    @Test
+    public void matchesTest_NeitherPasswordNorHashIsStored() {
+        assertTrue(encoder.matches(PASSWORD, encoded));
+        assertThat(cache.getNativeCache().asMap().keySet())
+                .hasSize(1)
+                .allSatisfy(key -> assertThat(key.toString()).doesNotContain(PASSWORD).doesNotContain(encoded));
+    }
+}
@@ -0,0 +1,80 @@
+package jp.co.axa.api.demo.controllers.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    private AdaptiveConcurrencyLimit limit(int initialLimit) {
+        return new AdaptiveConcurrencyLimit(initialLimit, 2, 100, 2.0, Duration.ofMillis(10), Duration.ofMinutes(1), now::get);
+    }
+
+    @Test
+    public void tryAcquireTest_RejectsOverTheLimit() {
+        AdaptiveConcurrencyLimit limit = limit(2);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+
+        limit.release();
+        assertEquals(1, limit.getInFlight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    public void releaseTest_SlowRequestsLowerTheLimit() {
+        AdaptiveConcurrencyLimit limit = limit(50);
+        limit.tryAcquire();
+        limit.release(5 * MILLIS);
+        assertEquals(50, limit.getLimit());
+
+        now.addAndGet(100 * MILLIS);
+        limit.tryAcquire();
+        limit.release(60 * MILLIS);
+        assertEquals(45, limit.getLimit());
+
+        //at most once per slow latency, requests already queued do not all count
+        limit.tryAcquire();
+        limit.release(60 * MILLIS);
+        assertEquals(45, limit.getLimit());
+    }
+
+    @Test
+    public void releaseTest_NeverUnderTheMinimum() {
+        AdaptiveConcurrencyLimit limit = limit(3);
+        limit.tryAcquire();
+        limit.release(MILLIS);
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            limit.tryAcquire();
+            limit.release(500 * MILLIS);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void releaseTest_FastRequestsRaiseTheLimitWhenUsed() {
+        AdaptiveConcurrencyLimit limit = limit(4);
+        for (int i = 0; i < 1000; i++) {
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.release(MILLIS);
+            limit.release(MILLIS);
+            limit.release(MILLIS);
+        }
+        assertTrue(limit.getLimit() > 4);
+    }
+}
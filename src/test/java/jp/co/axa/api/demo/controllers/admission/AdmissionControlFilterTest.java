@@ -0,0 +1,149 @@
+package jp.co.axa.api.demo.controllers.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.co.axa.api.demo.configuration.AdmissionControlProperties;
+import jp.co.axa.api.demo.configuration.CacheConfiguration;
+import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import static jp.co.axa.api.demo.configuration.BulkheadConfiguration.BULK;
+import static jp.co.axa.api.demo.configuration.BulkheadConfiguration.READ;
+import static jp.co.axa.api.demo.configuration.BulkheadConfiguration.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class AdmissionControlFilterTest {
+
+    private static final String EMPLOYEES = "/api/v1/employees";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void initialize() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        for (String endpoint : new String[]{READ, WRITE, BULK}) {
+            AdmissionControlProperties.RateSpec rate = new AdmissionControlProperties.RateSpec();
+            rate.setPermitsPerSecond(1);
+            rate.setBurst(2);
+            properties.getRates().put(endpoint, rate);
+        }
+        properties.getConcurrency().setInitialLimit(1);
+        properties.getConcurrency().setMinLimit(1);
+        CaffeineCache buckets = new CaffeineCache(CacheConfiguration.RATE_LIMIT_CACHE, Caffeine.newBuilder().build());
+        filter = new AdmissionControlFilter(properties, buckets, meterRegistry, mapper);
+        authenticate("user");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(name, null, "ROLE_USER"));
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        //the dispatcher servlet is mapped to '/', paths are matched on the servlet path
+        request.setServletPath(path);
+        return request;
+    }
+
+    private MockHttpServletResponse perform(String method, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path), response, new MockFilterChain());
+        return response;
+    }
+
+    private double rejected(String endpoint, String reason) {
+        return meterRegistry.get("admission.rejected").tag("endpoint", endpoint).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    public void doFilterTest_RateLimitedPerPrincipal() throws Exception {
+        assertEquals(HttpStatus.OK.value(), perform("GET", EMPLOYEES + "/1").getStatus());
+        assertEquals(HttpStatus.OK.value(), perform("GET", EMPLOYEES + "/1").getStatus());
+
+        MockHttpServletResponse limited = perform("GET", EMPLOYEES + "/1");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), limited.getStatus());
+        assertEquals("1", limited.getHeader(HttpHeaders.RETRY_AFTER));
+        assertThat(mapper.readValue(limited.getContentAsString(), VoidResponseDTO.class).getResponse())
+                .contains("Too many read requests of user");
+        assertEquals(1, rejected(READ, AdmissionControlFilter.RATE_LIMITED));
+
+        authenticate("other");
+        assertEquals(HttpStatus.OK.value(), perform("GET", EMPLOYEES + "/1").getStatus());
+    }
+
+    @Test
+    public void doFilterTest_RateLimitedPerEndpointClass() throws Exception {
+        perform("GET", EMPLOYEES + "/1");
+        perform("GET", EMPLOYEES + "/names");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), perform("GET", EMPLOYEES + "/2").getStatus());
+
+        assertEquals(HttpStatus.OK.value(), perform("GET", EMPLOYEES).getStatus());
+        assertEquals(HttpStatus.OK.value(), perform("GET", EMPLOYEES + "/search").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), perform("POST", EMPLOYEES + "/bulk").getStatus());
+        assertEquals(1, rejected(BULK, AdmissionControlFilter.RATE_LIMITED));
+
+        assertEquals(HttpStatus.OK.value(), perform("PUT", EMPLOYEES).getStatus());
+        assertEquals(HttpStatus.OK.value(), perform("DELETE", EMPLOYEES + "/1").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), perform("PATCH", EMPLOYEES + "/1").getStatus());
+        assertEquals(1, rejected(WRITE, AdmissionControlFilter.RATE_LIMITED));
+    }
+
+    @Test
+    public void doFilterTest_ShedsOverTheConcurrencyLimitUntilAsyncResponsesComplete() throws Exception {
+        MockHttpServletRequest request = request("GET", EMPLOYEES + "/1");
+        request.setAsyncSupported(true);
+        MockFilterChain asyncChain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                ((HttpServletRequest) request).startAsync();
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), asyncChain);
+        assertEquals(1, filter.getConcurrencyLimit(READ).getInFlight());
+
+        authenticate("other");
+        MockHttpServletResponse shed = perform("GET", EMPLOYEES + "/1");
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), shed.getStatus());
+        assertEquals("1", shed.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, rejected(READ, AdmissionControlFilter.OVER_CONCURRENCY_LIMIT));
+        assertEquals(HttpStatus.OK.value(), perform("PUT", EMPLOYEES).getStatus());
+
+        request.getAsyncContext().complete();
+        assertEquals(0, filter.getConcurrencyLimit(READ).getInFlight());
+        assertEquals(HttpStatus.OK.value(), perform("GET", EMPLOYEES + "/1").getStatus());
+    }
+
+    @Test
+    public void doFilterTest_OtherPathsAreNotAdmitted() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = perform("GET", "/actuator/health");
+            assertEquals(HttpStatus.OK.value(), response.getStatus());
+            assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+        }
+    }
+}
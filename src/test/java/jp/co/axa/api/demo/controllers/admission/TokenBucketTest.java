@@ -0,0 +1,38 @@
+package jp.co.axa.api.demo.controllers.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    public void tryAcquireTest_BurstThenRate() {
+        TokenBucket bucket = new TokenBucket(10, 3, now::get);
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+
+        long wait = bucket.tryAcquire();
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        now.addAndGet(wait);
+        assertEquals(0, bucket.tryAcquire());
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    public void tryAcquireTest_RefillsUpToTheBurstOnly() {
+        TokenBucket bucket = new TokenBucket(10, 2, now::get);
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+}
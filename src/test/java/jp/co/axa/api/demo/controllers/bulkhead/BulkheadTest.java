@@ -0,0 +1,144 @@
+package jp.co.axa.api.demo.controllers.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.co.axa.api.demo.exceptions.BulkheadException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskDecorator;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class BulkheadTest {
+
+    private static final long WAIT_SECONDS = 5;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Bulkhead bulkhead;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        bulkhead.shutdown();
+    }
+
+    private String blocked() throws InterruptedException {
+        release.await(WAIT_SECONDS, TimeUnit.SECONDS);
+        return "released";
+    }
+
+    @Test
+    void runsTasksOnItsOwnThreads() throws Exception {
+        bulkhead = new Bulkhead("read", 1, 1, Duration.ofSeconds(WAIT_SECONDS), meterRegistry);
+        String thread = bulkhead.submit(() -> Thread.currentThread().getName()).get(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertThat(thread).startsWith("read-bulkhead-");
+    }
+
+    @Test
+    void failsWithTheExceptionOfTheTask() {
+        bulkhead = new Bulkhead("read", 1, 1, Duration.ofSeconds(WAIT_SECONDS), meterRegistry);
+        CompletableFuture<Object> result = bulkhead.submit(() -> {
+            throw new IllegalStateException("task failed");
+        });
+        assertThatThrownBy(() -> result.get(WAIT_SECONDS, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsWhenThreadsAndQueueAreFull() throws Exception {
+        bulkhead = new Bulkhead("bulk", 1, 1, Duration.ofSeconds(WAIT_SECONDS), meterRegistry);
+        CompletableFuture<String> running = bulkhead.submit(this::blocked);
+        CompletableFuture<String> queued = bulkhead.submit(this::blocked);
+        CompletableFuture<String> rejected = bulkhead.submit(this::blocked);
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(BulkheadException.class);
+        assertEquals(1, meterRegistry.get("bulkhead.shed").tag("bulkhead", "bulk").tag("reason", "full").counter().count());
+
+        release.countDown();
+        assertEquals("released", running.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals("released", queued.get(WAIT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timesOutAndDropsQueuedTasks() throws Exception {
+        bulkhead = new Bulkhead("write", 1, 1, Duration.ofMillis(100), meterRegistry);
+        CompletableFuture<String> running = bulkhead.submit(this::blocked);
+        AtomicBoolean queuedRan = new AtomicBoolean();
+        CompletableFuture<Boolean> queued = bulkhead.submit(() -> queuedRan.getAndSet(true));
+
+        assertThatThrownBy(() -> running.get(WAIT_SECONDS, TimeUnit.SECONDS)).hasCauseInstanceOf(BulkheadException.class);
+        assertThatThrownBy(() -> queued.get(WAIT_SECONDS, TimeUnit.SECONDS)).hasCauseInstanceOf(BulkheadException.class);
+        //counted by the timer thread right after it fails the future
+        Counter timedOut = meterRegistry.get("bulkhead.shed").tag("bulkhead", "write").tag("reason", "timeout").counter();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+        while (timedOut.count() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(2, timedOut.count());
+
+        release.countDown();
+        bulkhead.shutdown();
+        assertThat(bulkhead.getExecutor().awaitTermination(WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        assertThat(queuedRan).isFalse();
+    }
+
+    @Test
+    void cancelsTheTimeoutOfFinishedTasks() throws Exception {
+        bulkhead = new Bulkhead("read", 2, 100, Duration.ofMinutes(10), meterRegistry);
+        for (int i = 0; i < 1000; i++) {
+            bulkhead.submit(() -> "done").get(WAIT_SECONDS, TimeUnit.SECONDS);
+        }
+        CompletableFuture<String> running = bulkhead.submit(this::blocked);
+        assertEquals(1, pendingTimeouts(1));
+
+        release.countDown();
+        assertEquals("released", running.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(0, pendingTimeouts(0));
+    }
+
+    /**
+     * The timeout is cancelled by the thread completing the task, possibly right after the caller got the result.
+     */
+    private int pendingTimeouts(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+        while (bulkhead.getTimeouts().getQueue().size() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return bulkhead.getTimeouts().getQueue().size();
+    }
+
+    @Test
+    void runsTasksThroughTheDecorator() throws Exception {
+        ThreadLocal<String> requestState = ThreadLocal.withInitial(() -> "none");
+        requestState.set("request");
+        TaskDecorator carryState = task -> {
+            String state = requestState.get();
+            return () -> {
+                requestState.set(state);
+                try {
+                    task.run();
+                } finally {
+                    requestState.remove();
+                }
+            };
+        };
+        bulkhead = new Bulkhead("read", 1, 1, Duration.ofSeconds(WAIT_SECONDS), meterRegistry, carryState);
+
+        assertEquals("request", bulkhead.submit(requestState::get).get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertSame(carryState, bulkhead.getTaskDecorator());
+    }
+}
@@ -0,0 +1,55 @@
+package jp.co.axa.api.demo.controllers.controlleradvice;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class SampledErrorLogTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SampledErrorLogTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    public void errorTest_LogsTheBurstThenCountsTheRest() {
+        SampledErrorLog errorLog = new SampledErrorLog(logger, 0.001, 2);
+        for (int i = 0; i < 10; i++) {
+            errorLog.error("uri=/api/v1/employees/" + i, new IllegalStateException("failure " + i));
+        }
+        assertEquals(2, appender.list.size());
+        assertEquals("Exception For Request: uri=/api/v1/employees/0", appender.list.get(0).getFormattedMessage());
+        assertNotNull(appender.list.get(0).getThrowableProxy());
+        assertEquals("Exception For Request: uri=/api/v1/employees/1", appender.list.get(1).getFormattedMessage());
+    }
+
+    @Test
+    public void errorTest_ReportsTheSkippedCountWithTheNextLoggedError() throws InterruptedException {
+        SampledErrorLog errorLog = new SampledErrorLog(logger, 2, 1);
+        errorLog.error("uri=/first", new IllegalStateException());
+        errorLog.error("uri=/skipped", new IllegalStateException());
+        errorLog.error("uri=/skipped", new IllegalStateException());
+        Thread.sleep(600);
+        errorLog.error("uri=/next", new IllegalStateException());
+
+        assertEquals(3, appender.list.size());
+        assertEquals("2 more exceptions were not logged", appender.list.get(1).getFormattedMessage());
+        assertEquals("Exception For Request: uri=/next", appender.list.get(2).getFormattedMessage());
+    }
+}
@@ -0,0 +1,119 @@
+package jp.co.axa.api.demo.controllers.converters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jp.co.axa.api.demo.configuration.CacheEntryWeigher;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CachedEmployeeHttpMessageConverterTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    ObjectMapper jsonMapper;
+    ObjectMapper smileMapper;
+    Cache bodyCache;
+    CachedEmployeeHttpMessageConverter converter;
+
+    @BeforeEach
+    void init() {
+        jsonMapper = spy(new ObjectMapper());
+        smileMapper = spy(new ObjectMapper(new SmileFactory()));
+        Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+        objectMappers.put(MediaType.APPLICATION_JSON, jsonMapper);
+        objectMappers.put(SMILE, smileMapper);
+        bodyCache = new ConcurrentMapCache("employeeBodyCache");
+        converter = new CachedEmployeeHttpMessageConverter(bodyCache, objectMappers);
+    }
+
+    private byte[] write(EmployeeDTO employee, MediaType mediaType) throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(employee, mediaType, outputMessage);
+        assertEquals(outputMessage.getBodyAsBytes().length, outputMessage.getHeaders().getContentLength());
+        return outputMessage.getBodyAsBytes();
+    }
+
+    @Test
+    public void writeTest_EncodesOncePerVersionAndType() throws IOException {
+        EmployeeDTO employee = new EmployeeDTO("Shawn", 4000, "Devops", 4L, 1L);
+
+        byte[] json = write(employee, MediaType.APPLICATION_JSON);
+        assertArrayEquals(new ObjectMapper().writeValueAsBytes(employee), json);
+        assertArrayEquals(json, write(employee, MediaType.APPLICATION_JSON));
+        verify(jsonMapper, times(1)).writeValueAsBytes(any());
+
+        byte[] smile = write(employee, SMILE);
+        assertEquals("Shawn", new ObjectMapper(new SmileFactory()).readValue(smile, EmployeeDTO.class).getName());
+        write(employee, SMILE);
+        verify(smileMapper, times(1)).writeValueAsBytes(any());
+        assertThat(bodyCache.get(4L, EncodedEmployee.class).size()).isEqualTo(json.length + smile.length);
+    }
+
+    @Test
+    public void writeTest_EntryIsWeighedWithItsBodies() throws IOException {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .maximumWeight(1 << 20)
+                .weigher(new CacheEntryWeigher())
+                //weights are updated by the maintenance of the cache, run it on the calling thread
+                .executor(Runnable::run)
+                .build();
+        bodyCache = new CaffeineCache("employeeBodyCache", nativeCache);
+        converter = new CachedEmployeeHttpMessageConverter(bodyCache, Map.of(MediaType.APPLICATION_JSON, jsonMapper, SMILE, smileMapper));
+        EmployeeDTO employee = new EmployeeDTO("Shawn", 4000, "Devops", 4L, 1L);
+
+        long empty = new CacheEntryWeigher().weigh(4L, new EncodedEmployee(1L));
+        byte[] json = write(employee, MediaType.APPLICATION_JSON);
+        assertEquals(empty + json.length, nativeCache.policy().eviction().get().weightedSize().getAsLong());
+        byte[] smile = write(employee, SMILE);
+        assertEquals(empty + json.length + smile.length, nativeCache.policy().eviction().get().weightedSize().getAsLong());
+    }
+
+    @Test
+    public void writeTest_NewVersionIsEncodedAgain() throws IOException {
+        write(new EmployeeDTO("Shawn", 4000, "Devops", 4L, 1L), MediaType.APPLICATION_JSON);
+        EmployeeDTO updated = new EmployeeDTO("Shawn", 4500, "Devops", 4L, 2L);
+
+        byte[] json = write(updated, MediaType.APPLICATION_JSON);
+        assertEquals(4500, new ObjectMapper().readValue(json, EmployeeDTO.class).getSalary());
+        assertEquals(2L, bodyCache.get(4L, EncodedEmployee.class).getVersion());
+    }
+
+    @Test
+    public void writeTest_WithoutVersionIsNotCached() throws IOException {
+        write(new EmployeeDTO("Shawn", 4000, "Devops", 4L), MediaType.APPLICATION_JSON);
+        assertThat(bodyCache.get(4L)).isNull();
+    }
+
+    @Test
+    public void supportsTest() {
+        assertTrue(converter.canWrite(EmployeeDTO.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(EmployeeDTO.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canWrite(Object.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(EmployeeDTO.class, MediaType.APPLICATION_JSON));
+        assertThrows(HttpMessageNotWritableException.class,
+                () -> write(new EmployeeDTO("Shawn", 4000, "Devops", 4L, 1L), MediaType.APPLICATION_CBOR));
+    }
+}
@@ -0,0 +1,144 @@
+package jp.co.axa.api.demo.controllers.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.co.axa.api.demo.configuration.DiagnosticsProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SqlDiagnosticsTest {
+
+    private static final String SELECT = "select e.id, e.employee_name from employee e where e.id=?";
+    private static final String INSERT = "insert into employee (employee_name, id) values (?, ?)";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SqlDiagnostics sqlDiagnostics;
+    private RequestDiagnostics diagnostics;
+
+    @BeforeEach
+    void initialize() {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.setSlowQueryThreshold(Duration.ofMillis(10));
+        properties.setStatementBudget(1);
+        properties.getStatementBudgets().put("saveEmployees", 5);
+        sqlDiagnostics = new SqlDiagnostics(properties, meterRegistry);
+        diagnostics = new RequestDiagnostics("GET /api/v1/employees/42");
+        RequestDiagnostics.bind(diagnostics);
+    }
+
+    @AfterEach
+    void unbind() {
+        RequestDiagnostics.unbind();
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis, int batchSize) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setStatementType(StatementType.PREPARED);
+        execInfo.setElapsedTime(elapsedMillis);
+        execInfo.setBatch(batchSize > 0);
+        execInfo.setBatchSize(batchSize);
+        execInfo.setSuccess(true);
+        return execInfo;
+    }
+
+    private static List<QueryInfo> query(String sql, long id) throws NoSuchMethodException {
+        QueryInfo queryInfo = new QueryInfo(sql);
+        queryInfo.getParametersList().add(Collections.singletonList(new ParameterSetOperation(
+                PreparedStatement.class.getMethod("setLong", int.class, long.class), new Object[]{1, id})));
+        return Collections.singletonList(queryInfo);
+    }
+
+    @Test
+    public void afterQueryTest_CountsIntoTheCurrentRequest() throws Exception {
+        sqlDiagnostics.afterQuery(execution(1, 0), query(SELECT, 42));
+        sqlDiagnostics.afterQuery(execution(2, 50), query(INSERT, 43));
+
+        assertEquals(2, diagnostics.getStatements());
+        assertEquals(1, diagnostics.getSelects());
+        assertEquals(1, diagnostics.getInserts());
+        assertEquals(1, diagnostics.getBatches());
+        assertEquals(50, diagnostics.getBatchedRows());
+        assertEquals(3, diagnostics.getJdbcMillis());
+        assertThat(sqlDiagnostics.getSlowQueries()).isEmpty();
+
+        //statements outside of requests, e.g. at startup, are not counted
+        RequestDiagnostics.unbind();
+        sqlDiagnostics.afterQuery(execution(1, 0), query(SELECT, 42));
+        assertEquals(2, diagnostics.getStatements());
+    }
+
+    @Test
+    public void afterQueryTest_KeepsSlowStatementsWithTheirParameters() throws Exception {
+        sqlDiagnostics.afterQuery(execution(25, 0), query(SELECT, 4711));
+
+        SqlDiagnostics.SlowQuery slowQuery = sqlDiagnostics.getSlowQueries().get(0);
+        assertEquals("GET /api/v1/employees/42", slowQuery.getRequest());
+        assertEquals(25, slowQuery.getElapsedMillis());
+        assertThat(slowQuery.getStatement()).contains(SELECT, "4711");
+
+        RequestDiagnostics.unbind();
+        sqlDiagnostics.afterQuery(execution(30, 0), query(SELECT, 4712));
+        assertNull(sqlDiagnostics.getSlowQueries().get(0).getRequest());
+        assertEquals(2, sqlDiagnostics.getSlowQueries().size());
+    }
+
+    @Test
+    public void finishTest_FlagsRequestsOverTheirBudget() throws Exception {
+        sqlDiagnostics.afterQuery(execution(1, 0), query(SELECT, 42));
+        sqlDiagnostics.afterQuery(execution(1, 0), query(SELECT, 42));
+        sqlDiagnostics.finish(diagnostics, "getEmployee", 200);
+
+        assertTrue(diagnostics.isOverBudget());
+        assertSame(diagnostics, sqlDiagnostics.getOverBudget().get(0));
+        assertEquals(1, meterRegistry.get("sql.requests.over.budget").tag("handler", "getEmployee").counter().count());
+
+        RequestDiagnostics bulk = new RequestDiagnostics("POST /api/v1/employees/bulk");
+        RequestDiagnostics.bind(bulk);
+        sqlDiagnostics.afterQuery(execution(1, 50), query(INSERT, 1));
+        sqlDiagnostics.afterQuery(execution(1, 50), query(INSERT, 51));
+        sqlDiagnostics.finish(bulk, "saveEmployees", 201);
+
+        assertFalse(bulk.isOverBudget());
+        assertEquals(5, bulk.getStatementBudget());
+        assertEquals(1, sqlDiagnostics.getOverBudget().size());
+        assertEquals(2, sqlDiagnostics.getRequests().size());
+        assertSame(bulk, sqlDiagnostics.getRequests().get(0));
+    }
+
+    @Test
+    public void propagateTest_TasksRecordIntoTheSubmittingRequest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<RequestDiagnostics> seen = new CompletableFuture<>();
+            executor.submit(RequestDiagnostics.propagate(() -> seen.complete(RequestDiagnostics.current()))).get();
+            assertSame(diagnostics, seen.get());
+
+            //the pool thread is clean again for the next task
+            CompletableFuture<RequestDiagnostics> after = new CompletableFuture<>();
+            executor.submit(() -> after.complete(RequestDiagnostics.current())).get();
+            assertNull(after.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
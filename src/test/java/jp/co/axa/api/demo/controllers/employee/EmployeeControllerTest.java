@@ -1,38 +1,75 @@
 package jp.co.axa.api.demo.controllers.employee;
 
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.common.io.Resources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.co.axa.api.demo.controllers.bulkhead.Bulkhead;
 import jp.co.axa.api.demo.controllers.controlleradvice.ApplicationExceptionHandler;
 import jp.co.axa.api.demo.controllers.employees.EmployeeController;
 import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSaveResultDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSortField;
 import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
 import jp.co.axa.api.demo.exceptions.EmployeeAPIException;
+import jp.co.axa.api.demo.exceptions.EmployeeNotFoundException;
+import jp.co.axa.api.demo.exceptions.InvalidRequestException;
 import jp.co.axa.api.demo.services.employee.CommonResponseMessage;
 import jp.co.axa.api.demo.services.employee.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
+import static jp.co.axa.api.demo.configuration.BulkheadConfiguration.BULK;
+import static jp.co.axa.api.demo.configuration.BulkheadConfiguration.READ;
+import static jp.co.axa.api.demo.configuration.BulkheadConfiguration.WRITE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith({SpringExtension.class})
@@ -42,13 +79,16 @@ public class EmployeeControllerTest {
     public static final String EMPLOYEE_ID = "{employeeId}";
     private static final String EMPLOYEE_DATA_FILE = "employee-data/employee-mock-data.json";
     private static final String EMPLOYEE = "Employee";
+    private static final long ASYNC_TIMEOUT_MS = 5000;
     @Mock
     EmployeeService employeeService;
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
     @InjectMocks
     ApplicationExceptionHandler exceptionHandler;
-    @InjectMocks
     EmployeeController controller;
     private MockMvc mockMvc;
+    private final List<Bulkhead> bulkheads = new ArrayList<>();
 
     private static final ObjectMapper mapper = new ObjectMapper();
 
@@ -56,15 +96,46 @@ public class EmployeeControllerTest {
 
     @BeforeEach
     void initialize() throws IOException, EmployeeAPIException {
-        this.mockMvc = MockMvcBuilders.standaloneSetup(controller)
-                .setControllerAdvice(exceptionHandler).build();
+        initializeController(bulkhead(READ, 2, 10), bulkhead(WRITE, 2, 10), bulkhead(BULK, 2, 10));
         initializeEmployeeData();
         initializeMock();
     }
 
+    @AfterEach
+    void shutdownBulkheads() {
+        bulkheads.forEach(Bulkhead::shutdown);
+    }
+
+    private void initializeController(Bulkhead readBulkhead, Bulkhead writeBulkhead, Bulkhead bulkBulkhead) {
+        controller = new EmployeeController(employeeService, objectMapper, readBulkhead, writeBulkhead, bulkBulkhead);
+        this.mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(exceptionHandler).build();
+    }
+
+    private Bulkhead bulkhead(String name, int threads, int queueCapacity) {
+        Bulkhead bulkhead = new Bulkhead(name, threads, queueCapacity, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        bulkheads.add(bulkhead);
+        return bulkhead;
+    }
+
+    /**
+     * Handlers answer on a bulkhead, so the response is complete after the async dispatch.
+     * Requests rejected before the handler, e.g. invalid bodies, are answered straight away.
+     */
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult started = actions.andReturn();
+        if (!started.getRequest().isAsyncStarted()) {
+            return actions;
+        }
+        started.getAsyncResult(ASYNC_TIMEOUT_MS);
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
     private void initializeMock() throws EmployeeAPIException {
         BulkEmployeeGetDTO bulkDTO = new BulkEmployeeGetDTO(new ArrayList<>(employees.values()));
         given(employeeService.retrieveEmployees()).willReturn(bulkDTO);
+        given(employeeService.retrieveEmployees(null, null)).willReturn(new EmployeePageDTO(bulkDTO.getEmployees(), null));
         for (Long employeeId : employees.keySet()) {
             given(employeeService.getEmployee(employeeId)).willReturn(employees.get(employeeId));
         }
@@ -79,7 +150,7 @@ public class EmployeeControllerTest {
 
     @Test
     public void testGetAllEmployees() throws Exception {
-        MvcResult mvcResult = mockMvc.perform(get(CONTEXT_PATH)).andReturn();
+        MvcResult mvcResult = perform(get(CONTEXT_PATH).param("all", "true")).andReturn();
         BulkEmployeeGetDTO bulkDto = new ObjectMapper().readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeGetDTO.class);
         assertEquals(mvcResult.getResponse().getStatus(), HttpStatus.OK.value());
         assertThat(bulkDto).isNotNull();
@@ -87,15 +158,254 @@ public class EmployeeControllerTest {
         assertEquals(bulkDto.getEmployees().size(), employees.size());
     }
 
+    @Test
+    public void testGetEmployees_NotModified() throws Exception {
+        given(employeeService.getEmployeesVersion()).willReturn("1-5");
+        perform(get(CONTEXT_PATH).param("all", "true"))
+                .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, "\"json-1-5\""));
+
+        MvcResult mvcResult = perform(get(CONTEXT_PATH).param("all", "true").header(HttpHeaders.IF_NONE_MATCH, "\"json-1-5\""))
+                .andExpect(status().isNotModified()).andReturn();
+        assertEquals("", mvcResult.getResponse().getContentAsString());
+        verify(employeeService).retrieveEmployees();
+    }
+
+    @Test
+    public void testGetEmployeesPage_NotModified() throws Exception {
+        given(employeeService.getEmployeesVersion()).willReturn("1-5");
+        perform(get(CONTEXT_PATH).header(HttpHeaders.IF_NONE_MATCH, "\"json-1-5\""))
+                .andExpect(status().isNotModified());
+        verify(employeeService, never()).retrieveEmployees(any(), any());
+    }
+
+    @Test
+    public void testGetEmployeeFields() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 3);
+        row.put("name", employees.get(3L).getName());
+        given(employeeService.retrieveEmployees(Arrays.asList("name"), 2L, 1))
+                .willReturn(new EmployeeFieldsPageDTO(Collections.singletonList(row), 3L));
+
+        perform(get(CONTEXT_PATH).param("fields", "name").param("after", "2").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"employees\":[{\"id\":3,\"name\":\"" + employees.get(3L).getName()
+                        + "\"}],\"nextCursor\":3}", true));
+        verify(employeeService, never()).retrieveEmployees(any(), any());
+    }
+
+    @Test
+    public void testGetEmployee_BinaryFormats() throws Exception {
+        for (ObjectMapper binaryMapper : Arrays.asList(new ObjectMapper(new SmileFactory()), new ObjectMapper(new CBORFactory()))) {
+            String mediaType = binaryMapper.getFactory() instanceof SmileFactory
+                    ? EmployeeController.APPLICATION_SMILE_VALUE : MediaType.APPLICATION_CBOR_VALUE;
+            MvcResult mvcResult = perform(get(CONTEXT_PATH + EMPLOYEE_ID, 3L).accept(mediaType))
+                    .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.CONTENT_TYPE, mediaType)).andReturn();
+            EmployeeDTO employee = binaryMapper.readValue(mvcResult.getResponse().getContentAsByteArray(), EmployeeDTO.class);
+            assertEquals(employees.get(3L).getName(), employee.getName());
+            assertEquals(employees.get(3L).getSalary(), employee.getSalary());
+        }
+    }
+
+    /**
+     * Bytes on the wire of a large list in every format, raw and gzipped.
+     * The serialization cost of each format is measured by the jmh benchmarks.
+     */
+    @Test
+    public void testGetAllEmployees_BinaryFormatsAreSmaller() throws Exception {
+        List<EmployeeDTO> largeList = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            largeList.add(new EmployeeDTO("Employee " + id, 1000 + (int) id, "Department " + id % 20, id));
+        }
+        given(employeeService.retrieveEmployees()).willReturn(new BulkEmployeeGetDTO(largeList));
+
+        Map<String, int[]> sizes = new LinkedHashMap<>();
+        for (String mediaType : Arrays.asList(MediaType.APPLICATION_JSON_VALUE, EmployeeController.APPLICATION_SMILE_VALUE,
+                MediaType.APPLICATION_CBOR_VALUE)) {
+            byte[] body = perform(get(CONTEXT_PATH).param("all", "true").accept(mediaType))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray();
+            sizes.put(mediaType, new int[]{body.length, gzippedSize(body)});
+        }
+        sizes.forEach((mediaType, size) -> System.out.printf("%-28s %9d bytes, %9d gzipped%n", mediaType, size[0], size[1]));
+
+        int json = sizes.get(MediaType.APPLICATION_JSON_VALUE)[0];
+        assertThat(sizes.get(EmployeeController.APPLICATION_SMILE_VALUE)[0]).isLessThan(json);
+        assertThat(sizes.get(MediaType.APPLICATION_CBOR_VALUE)[0]).isLessThan(json);
+        assertThat(sizes.get(MediaType.APPLICATION_JSON_VALUE)[1]).isLessThan(json / 4);
+    }
+
+    private static int gzippedSize(byte[] body) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body);
+        }
+        return gzipped.size();
+    }
+
+    @Test
+    public void testGetEmployeesPage() throws Exception {
+        List<EmployeeDTO> firstPage = employees.values().stream()
+                .sorted(Comparator.comparing(EmployeeDTO::getId)).limit(2).collect(Collectors.toList());
+        Long nextCursor = firstPage.get(1).getId();
+        given(employeeService.retrieveEmployees(null, 2)).willReturn(new EmployeePageDTO(firstPage, nextCursor));
+
+        MvcResult mvcResult = perform(get(CONTEXT_PATH).param("limit", "2")).andReturn();
+        EmployeePageDTO page = mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeePageDTO.class);
+        assertEquals(HttpStatus.OK.value(), mvcResult.getResponse().getStatus());
+        assertEquals(firstPage, page.getEmployees());
+        assertEquals(nextCursor, page.getNextCursor());
+    }
+
+    @Test
+    public void testGetEmployeesLastPage() throws Exception {
+        MvcResult mvcResult = perform(get(CONTEXT_PATH)).andReturn();
+        assertEquals(HttpStatus.OK.value(), mvcResult.getResponse().getStatus());
+        assertThat(mvcResult.getResponse().getContentAsString()).doesNotContain("nextCursor");
+        BulkEmployeeGetDTO bulkDto = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeGetDTO.class);
+        assertEquals(employees.size(), bulkDto.getEmployees().size());
+    }
+
+    @Test
+    public void testStreamEmployees() throws Exception {
+        List<EmployeeDTO> sorted = employees.values().stream()
+                .sorted(Comparator.comparing(EmployeeDTO::getId)).collect(Collectors.toList());
+        doAnswer(invocation -> {
+            Consumer<EmployeeDTO> consumer = invocation.getArgument(0);
+            sorted.forEach(consumer);
+            return null;
+        }).when(employeeService).streamEmployees(any());
+
+        MvcResult asyncResult = mockMvc.perform(get(CONTEXT_PATH + "stream")).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult)).andReturn();
+        assertEquals(HttpStatus.OK.value(), mvcResult.getResponse().getStatus());
+        assertEquals(EmployeeController.APPLICATION_NDJSON_VALUE, mvcResult.getResponse().getContentType());
+
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        assertEquals(sorted.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(sorted.get(i), mapper.readValue(lines[i], EmployeeDTO.class));
+        }
+    }
+
+    @Test
+    public void testSearchEmployees() throws Exception {
+        EmployeeSearchDTO criteria = new EmployeeSearchDTO("HR", 500, 1500, EmployeeSortField.SALARY, Sort.Direction.DESC, 5);
+        BulkEmployeeGetDTO expected = new BulkEmployeeGetDTO(Collections.singletonList(employees.get(1L)));
+        given(employeeService.searchEmployees(criteria)).willReturn(expected);
+
+        MvcResult mvcResult = perform(get(CONTEXT_PATH + "search")
+                        .param("department", "HR").param("minSalary", "500").param("maxSalary", "1500")
+                        .param("sort", "SALARY").param("direction", "DESC").param("limit", "5"))
+                .andExpect(status().isOk()).andReturn();
+        BulkEmployeeGetDTO actual = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeGetDTO.class);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSearchEmployees_InValid_Salary() throws Exception {
+        perform(get(CONTEXT_PATH + "search").param("minSalary", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetEmployees_InValid_Limit() throws Exception {
+        given(employeeService.retrieveEmployees(null, 0)).willThrow(new InvalidRequestException("limit field invalid in given input."));
+
+        perform(get(CONTEXT_PATH).param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertEquals("Malformed Request : limit field invalid in given input.",
+                        mapper.readValue(result.getResponse().getContentAsString(), VoidResponseDTO.class).getResponse()));
+    }
+
+    @Test
+    public void testGetEmployeeFields_InValid_Field() throws Exception {
+        given(employeeService.retrieveEmployees(Collections.singletonList("password"), null, null))
+                .willThrow(new InvalidRequestException("fields field invalid in given input."));
+
+        perform(get(CONTEXT_PATH).param("fields", "password")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetEmployeesByIds_TooMany() throws Exception {
+        given(employeeService.getEmployees(any())).willThrow(new InvalidRequestException("ids field invalid in given input."));
+
+        perform(get(CONTEXT_PATH).param("ids", "1,2,3")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSearchEmployees_Empty_SalaryRange() throws Exception {
+        given(employeeService.searchEmployees(any())).willThrow(new InvalidRequestException("minSalary field invalid in given input."));
+
+        perform(get(CONTEXT_PATH + "search").param("minSalary", "5000").param("maxSalary", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSearchEmployeeNames_BlankQuery() throws Exception {
+        given(employeeService.searchEmployeeNames(" ", null)).willThrow(new InvalidRequestException("query field invalid in given input."));
+
+        perform(get(CONTEXT_PATH + "names").param("query", " ")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetEmployeesByIds() throws Exception {
+        BulkEmployeeGetDTO expected = new BulkEmployeeGetDTO(Arrays.asList(employees.get(2L), employees.get(1L)));
+        given(employeeService.getEmployees(Arrays.asList(2L, 1L))).willReturn(expected);
+
+        MvcResult mvcResult = perform(get(CONTEXT_PATH).param("ids", "2,1"))
+                .andExpect(status().isOk()).andReturn();
+        BulkEmployeeGetDTO actual = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeGetDTO.class);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSearchEmployeeNames() throws Exception {
+        EmployeeNameSearchDTO expected = new EmployeeNameSearchDTO(Collections.singletonList(new EmployeeNameDTO(1L, "Hashimoto")));
+        given(employeeService.searchEmployeeNames("shim", 5)).willReturn(expected);
+
+        MvcResult mvcResult = perform(get(CONTEXT_PATH + "names").param("query", "shim").param("limit", "5"))
+                .andExpect(status().isOk()).andReturn();
+        EmployeeNameSearchDTO actual = mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeeNameSearchDTO.class);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSearchEmployeeNames_NoQuery() throws Exception {
+        perform(get(CONTEXT_PATH + "names")).andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testGetEmployee() throws Exception {
         Long employeeId = 4L;
-        MvcResult mvcResult = mockMvc.perform(get(CONTEXT_PATH + EMPLOYEE_ID, employeeId)).andReturn();
+        MvcResult mvcResult = perform(get(CONTEXT_PATH + EMPLOYEE_ID, employeeId)).andReturn();
         EmployeeDTO e = mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeeDTO.class);
         assertThat(e).isNotNull();
         assertEquals(e, employees.get(employeeId));
     }
 
+    @Test
+    public void testGetEmployee_NotModified() throws Exception {
+        EmployeeDTO employee = new EmployeeDTO("Shawn", 4000, "Devops", 4L, 2L);
+        given(employeeService.getEmployee(4L)).willReturn(employee);
+        perform(get(CONTEXT_PATH + EMPLOYEE_ID, 4L))
+                .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, "\"json-4-2\""));
+
+        MvcResult mvcResult = perform(get(CONTEXT_PATH + EMPLOYEE_ID, 4L).header(HttpHeaders.IF_NONE_MATCH, "\"json-4-2\""))
+                .andExpect(status().isNotModified()).andReturn();
+        assertEquals("", mvcResult.getResponse().getContentAsString());
+        perform(get(CONTEXT_PATH + EMPLOYEE_ID, 4L).header(HttpHeaders.IF_NONE_MATCH, "\"json-4-1\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testGetEmployee_NotModifiedPerFormat() throws Exception {
+        EmployeeDTO employee = new EmployeeDTO("Shawn", 4000, "Devops", 4L, 2L);
+        given(employeeService.getEmployee(4L)).willReturn(employee);
+        perform(get(CONTEXT_PATH + EMPLOYEE_ID, 4L).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, "\"json-4-2\""))
+                .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, "\"cbor-4-2\""));
+        perform(get(CONTEXT_PATH + EMPLOYEE_ID, 4L).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, "\"cbor-4-2\""))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     public void testSaveEmployee() throws Exception {
         Long employeeId = 11L;
@@ -103,7 +413,7 @@ public class EmployeeControllerTest {
         VoidResponseDTO expectedResponse = new VoidResponseDTO(String.format(CommonResponseMessage.CREATE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeId));
         given(employeeService.saveEmployee(employeeToCreate)).willReturn(expectedResponse);
 
-        MvcResult mvcResult = mockMvc.perform(post(CONTEXT_PATH)
+        MvcResult mvcResult = perform(post(CONTEXT_PATH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(employeeToCreate))
                         .accept(MediaType.APPLICATION_JSON))
@@ -114,6 +424,42 @@ public class EmployeeControllerTest {
         assertEquals(expectedResponse, actualResponse);
     }
 
+    @Test
+    public void testSaveEmployees() throws Exception {
+        List<EmployeeInfoDTO> employeesToCreate = Arrays.asList(new EmployeeInfoDTO("Alan", 5000, "SALES"),
+                new EmployeeInfoDTO("Kenji", 4000, "HR"));
+        BulkEmployeeSaveResultDTO expectedResponse = new BulkEmployeeSaveResultDTO(
+                String.format(CommonResponseMessage.BULK_CREATE_SUCCESSFUL.getMessage(), 2, EMPLOYEE),
+                Arrays.asList(new EmployeeSaveResultDTO(0, 11L), new EmployeeSaveResultDTO(1, 12L)));
+        given(employeeService.saveEmployees(employeesToCreate)).willReturn(expectedResponse);
+
+        MvcResult mvcResult = perform(post(CONTEXT_PATH + "bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BulkEmployeeSaveDTO(employeesToCreate)))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(HttpStatus.CREATED.value(), mvcResult.getResponse().getStatus());
+        BulkEmployeeSaveResultDTO actualResponse = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeSaveResultDTO.class);
+        assertEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void testSaveEmployees_InValid_Item() throws Exception {
+        List<EmployeeInfoDTO> employeesToCreate = Arrays.asList(new EmployeeInfoDTO("Alan", 5000, "SALES"),
+                new EmployeeInfoDTO("Kenji", -1, "HR"));
+
+        perform(post(CONTEXT_PATH + "bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BulkEmployeeSaveDTO(employeesToCreate)))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> {
+                    VoidResponseDTO response = mapper.readValue(result.getResponse().getContentAsString(), VoidResponseDTO.class);
+                    assertEquals("Malformed Request : Invalid Fields:employees[1].salary", response.getResponse());
+                });
+    }
+
     @Test
     public void testUpdateEmployee() throws Exception {
         long employeeId = 1L;
@@ -122,7 +468,7 @@ public class EmployeeControllerTest {
         VoidResponseDTO expectedResponse = new VoidResponseDTO(String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeId));
         given(employeeService.updateEmployee(employeeToUpdate)).willReturn(expectedResponse);
 
-        MvcResult mvcResult = mockMvc.perform(put(CONTEXT_PATH, employeeId)
+        MvcResult mvcResult = perform(put(CONTEXT_PATH, employeeId)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(mapper.writeValueAsString(employeeToUpdate))
                 .accept(MediaType.APPLICATION_JSON)
@@ -133,12 +479,52 @@ public class EmployeeControllerTest {
         assertEquals(expectedResponse, actualResponse);
     }
 
+    @Test
+    public void testPatchEmployee() throws Exception {
+        long employeeId = 1L;
+        EmployeePatchDTO patch = new EmployeePatchDTO(null, 3500, null);
+        VoidResponseDTO expectedResponse = new VoidResponseDTO(String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeId));
+        given(employeeService.patchEmployee(employeeId, patch)).willReturn(expectedResponse);
+
+        MvcResult mvcResult = perform(patch(CONTEXT_PATH + EMPLOYEE_ID, employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"salary\":3500}")
+                .accept(MediaType.APPLICATION_JSON)
+        ).andReturn();
+
+        assertThat(mvcResult.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        VoidResponseDTO actualResponse = mapper.readValue(mvcResult.getResponse().getContentAsString(), VoidResponseDTO.class);
+        assertEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void testPatchEmployee_InValid_FieldValues() throws Exception {
+        perform(patch(CONTEXT_PATH + EMPLOYEE_ID, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"  \"}")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> {
+                    VoidResponseDTO response = mapper.readValue(result.getResponse().getContentAsString(), VoidResponseDTO.class);
+                    assertEquals("Malformed Request : Invalid Fields:name", response.getResponse());
+                });
+    }
+
+    @Test
+    public void testPatchEmployee_NoField() throws Exception {
+        perform(patch(CONTEXT_PATH + EMPLOYEE_ID, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testDeleteEmployee() throws Exception {
         long employeeId = 2L;
         VoidResponseDTO expectedResponse = new VoidResponseDTO(String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeId));
         given(employeeService.deleteEmployee(employeeId)).willReturn(expectedResponse);
-        MvcResult mvcResult = this.mockMvc.perform(delete(CONTEXT_PATH + EMPLOYEE_ID, employeeId)).andReturn();
+        MvcResult mvcResult = perform(delete(CONTEXT_PATH + EMPLOYEE_ID, employeeId)).andReturn();
         assertThat(mvcResult.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
     }
 
@@ -150,14 +536,14 @@ public class EmployeeControllerTest {
         EmployeeDTO employeeToUpdate = new EmployeeDTO("Hashimoto", 3000, "HR", employeeId);
 
         String exceptionMessage = String.format(CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage(), EMPLOYEE);
-        given(employeeService.updateEmployee(employeeToUpdate)).willThrow(new EmployeeAPIException(exceptionMessage));
+        given(employeeService.updateEmployee(employeeToUpdate)).willThrow(new EmployeeNotFoundException(exceptionMessage));
 
-        mockMvc.perform(put(CONTEXT_PATH)
+        perform(put(CONTEXT_PATH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(employeeToUpdate))
                         .accept(MediaType.APPLICATION_JSON)
                 )
-                .andExpect(status().isInternalServerError())
+                .andExpect(status().isNotFound())
                 .andExpect(result -> {
                     String message = Objects.requireNonNull(result.getResolvedException()).getMessage();
                     assertEquals(message, exceptionMessage);
@@ -173,7 +559,7 @@ public class EmployeeControllerTest {
         given(employeeService.updateEmployee(employeeToUpdate)).willReturn(expectedResponse);
 
         String invalidData = "}{";
-        mockMvc.perform(put(CONTEXT_PATH)
+        perform(put(CONTEXT_PATH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(invalidData))
                         .accept(MediaType.APPLICATION_JSON)
@@ -190,7 +576,7 @@ public class EmployeeControllerTest {
         VoidResponseDTO expectedResponse = new VoidResponseDTO(String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, employeeId));
         given(employeeService.updateEmployee(employeeToUpdate)).willReturn(expectedResponse);
 
-        mockMvc.perform(put(CONTEXT_PATH)
+        perform(put(CONTEXT_PATH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(employeeToUpdate))
                         .accept(MediaType.APPLICATION_JSON)
@@ -212,7 +598,7 @@ public class EmployeeControllerTest {
         String exceptionMessage = "Check Default Throwable controller advice";
         given(employeeService.updateEmployee(employeeToUpdate)).willThrow(new NullPointerException(exceptionMessage));
 
-        mockMvc.perform(put(CONTEXT_PATH)
+        perform(put(CONTEXT_PATH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(employeeToUpdate))
                         .accept(MediaType.APPLICATION_JSON)
@@ -224,5 +610,28 @@ public class EmployeeControllerTest {
                 });
     }
 
-
+    @Test
+    public void testSaturatedBulkBulkhead_SingleReadsStillServed() throws Exception {
+        initializeController(bulkhead(READ, 2, 10), bulkhead(WRITE, 2, 10), bulkhead(BULK, 1, 0));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.retrieveEmployees()).willAnswer(invocation -> {
+            started.countDown();
+            release.await(ASYNC_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return new BulkEmployeeGetDTO(new ArrayList<>(employees.values()));
+        });
+        MvcResult slowList = mockMvc.perform(get(CONTEXT_PATH).param("all", "true")).andReturn();
+        assertThat(started.await(ASYNC_TIMEOUT_MS, TimeUnit.MILLISECONDS)).isTrue();
+
+        perform(get(CONTEXT_PATH).param("all", "true"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        Long employeeId = employees.keySet().iterator().next();
+        perform(get(CONTEXT_PATH + EMPLOYEE_ID, employeeId))
+                .andExpect(status().isOk());
+
+        release.countDown();
+        slowList.getAsyncResult(ASYNC_TIMEOUT_MS);
+        mockMvc.perform(asyncDispatch(slowList)).andExpect(status().isOk());
+    }
 }
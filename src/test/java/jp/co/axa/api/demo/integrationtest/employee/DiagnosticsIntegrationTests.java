@@ -0,0 +1,142 @@
+package jp.co.axa.api.demo.integrationtest.employee;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.co.axa.api.demo.controllers.diagnostics.RequestDiagnostics;
+import jp.co.axa.api.demo.controllers.diagnostics.RequestDiagnosticsFilter;
+import jp.co.axa.api.demo.controllers.diagnostics.SqlDiagnostics;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements of employee requests under the {@code diagnostics} profile, with every statement taken as slow and a
+ * bulk insert budget its batches go over.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+        "api.demo.diagnostics.slow-query-threshold=0ms",
+        "api.demo.diagnostics.statement-budgets.saveEmployees=1"})
+@ActiveProfiles({"dev", "diagnostics"})
+public class DiagnosticsIntegrationTests {
+
+    private static final String URL_TEMPLATE = "/api/v1/employees/";
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final long ASYNC_TIMEOUT_MS = 10000;
+
+    private MockMvc mockMvc;
+    @Autowired
+    private WebApplicationContext applicationContext;
+    @Autowired
+    private RequestDiagnosticsFilter requestDiagnosticsFilter;
+    @Autowired
+    private SqlDiagnostics sqlDiagnostics;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void initialize() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(applicationContext).addFilters(requestDiagnosticsFilter).build();
+        sqlDiagnostics.clear();
+    }
+
+    /**
+     * Handlers answer on a bulkhead, the request is finished once the async dispatch completes the response.
+     */
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult started = actions.andReturn();
+        if (!started.getRequest().isAsyncStarted()) {
+            return actions;
+        }
+        started.getAsyncResult(ASYNC_TIMEOUT_MS);
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    @SneakyThrows
+    private RequestDiagnostics bulkInsert(int employees) {
+        List<EmployeeInfoDTO> bulk = IntStream.range(0, employees)
+                .mapToObj(i -> new EmployeeInfoDTO("Diagnostics " + i, 1000 + i, "HR"))
+                .collect(Collectors.toList());
+        perform(post(URL_TEMPLATE + "bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BulkEmployeeSaveDTO(bulk))))
+                .andExpect(status().isCreated());
+        return sqlDiagnostics.getRequests().get(0);
+    }
+
+    @Test
+    void statementsAreCountedPerRequest() {
+        RequestDiagnostics diagnostics = bulkInsert(120);
+
+        assertEquals("POST /api/v1/employees/bulk", diagnostics.getRequest());
+        assertEquals("saveEmployees", diagnostics.getHandler());
+        assertEquals(201, diagnostics.getStatus());
+        //batches of api.demo.jdbc.batch-size, run on the bulk bulkhead
+        assertEquals(3, diagnostics.getBatches());
+        assertEquals(120, diagnostics.getBatchedRows());
+        assertEquals(3, diagnostics.getInserts());
+        assertThat(diagnostics.getHibernateSessions()).isGreaterThanOrEqualTo(1);
+        assertThat(diagnostics.getConnections()).isGreaterThanOrEqualTo(1);
+        assertThat(diagnostics.getFlushedEntities()).isGreaterThanOrEqualTo(120);
+    }
+
+    @Test
+    void requestsOverBudgetAndSlowStatementsAreKept() {
+        RequestDiagnostics diagnostics = bulkInsert(60);
+
+        assertTrue(diagnostics.isOverBudget());
+        assertEquals(1, diagnostics.getStatementBudget());
+        assertThat(sqlDiagnostics.getOverBudget()).containsExactly(diagnostics);
+        assertThat(meterRegistry.get("sql.requests.over.budget").tag("handler", "saveEmployees").counter().count())
+                .isGreaterThanOrEqualTo(1);
+        assertThat(sqlDiagnostics.getSlowQueries()).anyMatch(slowQuery ->
+                "POST /api/v1/employees/bulk".equals(slowQuery.getRequest())
+                        && slowQuery.getStatement().contains("Diagnostics 59"));
+    }
+
+    @SneakyThrows
+    @Test
+    void diagnosticsAreExposed() {
+        bulkInsert(1);
+        perform(get(URL_TEMPLATE).param("limit", "5")).andExpect(status().isOk());
+
+        MvcResult mvcResult = perform(get("/actuator/sqldiagnostics")).andExpect(status().isOk()).andReturn();
+        JsonNode diagnostics = mapper.readTree(mvcResult.getResponse().getContentAsString());
+        assertTrue(diagnostics.path("hibernate").path("enabled").asBoolean());
+        assertThat(diagnostics.path("hibernate").path("preparedStatements").asLong()).isPositive();
+        assertEquals("getEmployees", diagnostics.path("requests").get(0).path("handler").asText());
+        assertEquals("saveEmployees", diagnostics.path("requests").get(1).path("handler").asText());
+        assertFalse(diagnostics.path("slowQueries").isEmpty());
+        //the pool metrics still find hikari behind the proxy
+        assertThat(meterRegistry.find("hikaricp.connections").gauge()).isNotNull();
+    }
+}
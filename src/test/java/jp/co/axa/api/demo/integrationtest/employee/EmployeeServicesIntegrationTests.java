@@ -4,8 +4,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
 import com.google.common.io.Resources;
 import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSaveResultDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jp.co.axa.api.demo.controllers.converters.EncodedEmployee;
+import io.micrometer.core.instrument.MeterRegistry;
 import jp.co.axa.api.demo.entities.employee.Employee;
 import jp.co.axa.api.demo.repositories.employee.EmployeeRepository;
 import lombok.SneakyThrows;
@@ -13,12 +24,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcMetricsFilter;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
@@ -36,6 +56,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureMetrics
 public class EmployeeServicesIntegrationTests {
 
     private MockMvc mockMvc;
@@ -43,6 +64,12 @@ public class EmployeeServicesIntegrationTests {
     private EmployeeRepository employeeRepository;
     @Autowired
     private WebApplicationContext applicationContext;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private FilterRegistrationBean<WebMvcMetricsFilter> metricsFilter;
 
     Map<Long, EmployeeDTO> employees = new HashMap<>();
 
@@ -50,6 +77,7 @@ public class EmployeeServicesIntegrationTests {
     private static final String EMPLOYEE_ID = "{employeeId}";
     private static final String EMPLOYEE_DATA_FILE = "employee-data/employee-mock-data.json";
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final long ASYNC_TIMEOUT_MS = 10000;
 
     @BeforeEach
     void initialize() {
@@ -57,19 +85,40 @@ public class EmployeeServicesIntegrationTests {
         initializeData();
     }
 
+    /**
+     * Handlers answer on a bulkhead, so the response is complete after the async dispatch.
+     * Requests rejected before the handler, e.g. invalid bodies, are answered straight away.
+     */
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult started = actions.andReturn();
+        if (!started.getRequest().isAsyncStarted()) {
+            return actions;
+        }
+        started.getAsyncResult(ASYNC_TIMEOUT_MS);
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
     @SneakyThrows
     private void initializeData() {
         String employeeData = Resources.toString(Resources.getResource(EMPLOYEE_DATA_FILE), StandardCharsets.UTF_8);
         Employee[] employeeInfo = new ObjectMapper().readValue(employeeData, Employee[].class);
         EmployeeDTO[] employeeDto = new ObjectMapper().readValue(employeeData, EmployeeDTO[].class);
         employees = Arrays.stream(employeeDto).collect(Collectors.toMap(EmployeeDTO::getId, Function.identity()));
+        for (Employee employee : employeeInfo) {
+            //overwrite the stored row at its current version, a row deleted by another test is inserted again
+            employee.setVersion(employeeRepository.findById(employee.getId()).map(Employee::getVersion).orElse(null));
+            if (employee.getVersion() == null) {
+                employee.setId(null);
+            }
+        }
         employeeRepository.saveAll(Arrays.asList(employeeInfo));
     }
 
     @SneakyThrows
     @Test
     void getAllEmployees()  {
-        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get(URL_TEMPLATE))
+        MvcResult mvcResult = perform(MockMvcRequestBuilders.get(URL_TEMPLATE).param("all", "true"))
                 .andExpect(status().isOk()).andReturn();
         BulkEmployeeGetDTO bulkDto = new ObjectMapper().readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeGetDTO.class);
         assertThat(bulkDto).isNotNull();
@@ -78,11 +127,302 @@ public class EmployeeServicesIntegrationTests {
         assertEquals(bulkDto.getEmployees().size(), employeesList.size());
     }
 
+    @SneakyThrows
+    @Test
+    void getEmployeesPageByPage() {
+        List<Long> pagedIds = new ArrayList<>();
+        Long cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get(URL_TEMPLATE).param("limit", "2");
+            if (cursor != null) {
+                request.param("after", cursor.toString());
+            }
+            MvcResult mvcResult = perform(request).andExpect(status().isOk()).andReturn();
+            EmployeePageDTO page = mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeePageDTO.class);
+            assertThat(page.getEmployees().size()).isLessThanOrEqualTo(2);
+            page.getEmployees().forEach(employee -> pagedIds.add(employee.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Long> allIds = Lists.newArrayList(employeeRepository.findAll()).stream()
+                .map(Employee::getId).sorted().collect(Collectors.toList());
+        assertEquals(allIds, pagedIds);
+    }
+
+    @SneakyThrows
+    @Test
+    void getEmployeeFieldsPageByPage() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Long cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get(URL_TEMPLATE).param("fields", "name,department").param("limit", "2");
+            if (cursor != null) {
+                request.param("after", cursor.toString());
+            }
+            MvcResult mvcResult = perform(request).andExpect(status().isOk()).andReturn();
+            EmployeeFieldsPageDTO page = mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeeFieldsPageDTO.class);
+            rows.addAll(page.getEmployees());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        Map<Long, Employee> stored = Lists.newArrayList(employeeRepository.findAll()).stream()
+                .collect(Collectors.toMap(Employee::getId, employee -> employee));
+        assertEquals(stored.size(), rows.size());
+        for (Map<String, Object> row : rows) {
+            assertEquals(Arrays.asList("id", "name", "department"), new ArrayList<>(row.keySet()));
+            Employee employee = stored.get(((Number) row.get("id")).longValue());
+            assertEquals(employee.getName(), row.get("name"));
+            assertEquals(employee.getDepartment(), row.get("department"));
+        }
+
+        perform(get(URL_TEMPLATE).param("fields", "name,password")).andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void streamAllEmployees() {
+        MvcResult asyncResult = mockMvc.perform(get(URL_TEMPLATE + "stream")).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk()).andReturn();
+
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        List<Long> streamedIds = new ArrayList<>();
+        for (String line : lines) {
+            streamedIds.add(mapper.readValue(line, EmployeeDTO.class).getId());
+        }
+        List<Long> allIds = Lists.newArrayList(employeeRepository.findAll()).stream()
+                .map(Employee::getId).sorted().collect(Collectors.toList());
+        assertEquals(allIds, streamedIds);
+    }
+
+    @SneakyThrows
+    @Test
+    void searchEmployees() {
+        employeeRepository.saveAll(Arrays.asList(new Employee(null, "Search One", 1250, "Search"),
+                new Employee(null, "Search Two", 2500, "Search"), new Employee(null, "Search Three", 3500, "Search"),
+                new Employee(null, "Search Four", 1234, "Elsewhere")));
+
+        MvcResult mvcResult = perform(get(URL_TEMPLATE + "search")
+                        .param("department", "Search").param("minSalary", "2000")
+                        .param("sort", "SALARY").param("direction", "DESC"))
+                .andExpect(status().isOk()).andReturn();
+        BulkEmployeeGetDTO result = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeGetDTO.class);
+        assertEquals(Arrays.asList("Search Three", "Search Two"),
+                result.getEmployees().stream().map(EmployeeDTO::getName).collect(Collectors.toList()));
+
+        mvcResult = perform(get(URL_TEMPLATE + "search")
+                        .param("minSalary", "1200").param("maxSalary", "1300").param("limit", "1")
+                        .param("sort", "NAME"))
+                .andExpect(status().isOk()).andReturn();
+        result = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeGetDTO.class);
+        assertEquals(1, result.getEmployees().size());
+        assertEquals("Search Four", result.getEmployees().get(0).getName());
+    }
+
+    @SneakyThrows
+    @Test
+    @SuppressWarnings("unchecked")
+    void employeeCacheRefreshesAhead() {
+        Object nativeCache = ((CaffeineCache) cacheManager.getCache("employeeCache")).getNativeCache();
+        assertTrue(nativeCache instanceof LoadingCache);
+        LoadingCache<Object, Object> employeeCache = (LoadingCache<Object, Object>) nativeCache;
+        assertTrue(employeeCache.policy().refreshAfterWrite().isPresent());
+
+        employeeCache.invalidate(3L);
+        perform(get(URL_TEMPLATE + EMPLOYEE_ID, 3L)).andExpect(status().isOk());
+        assertEquals(employees.get(3L), employeeCache.getIfPresent(3L));
+        //the loader behind the background refresh reads the database, an absent employee is not cached
+        assertThat(employeeCache.get(9999L)).isNull();
+        assertThat(employeeCache.getIfPresent(9999L)).isNull();
+    }
+
+    @SneakyThrows
+    @Test
+    void invalidParametersAreClientErrors() {
+        perform(get(URL_TEMPLATE).param("limit", "0")).andExpect(status().isBadRequest());
+        perform(get(URL_TEMPLATE).param("ids", "")).andExpect(status().isBadRequest());
+        perform(get(URL_TEMPLATE + "search").param("minSalary", "5000").param("maxSalary", "1000"))
+                .andExpect(status().isBadRequest());
+        perform(get(URL_TEMPLATE + "names").param("query", " ")).andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void cachesAreBoundedAndExported() {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> employeeCache =
+                ((CaffeineCache) cacheManager.getCache("employeeCache")).getNativeCache();
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> missCache =
+                ((CaffeineCache) cacheManager.getCache("employeeMissCache")).getNativeCache();
+        assertTrue(employeeCache.policy().eviction().get().isWeighted());
+        assertEquals(10_000L, missCache.policy().eviction().get().getMaximum());
+
+        double hits = meterRegistry.get("cache.gets").tag("cache", "employeeCache").tag("result", "hit")
+                .functionCounter().count();
+        perform(get(URL_TEMPLATE + EMPLOYEE_ID, 4L)).andExpect(status().isOk());
+        perform(get(URL_TEMPLATE + EMPLOYEE_ID, 4L)).andExpect(status().isOk());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "employeeCache").tag("result", "hit")
+                .functionCounter().count() > hits);
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "employeeMissCache").functionCounter()).isNotNull();
+    }
+
+    @SneakyThrows
+    @Test
+    void latencyOfEveryLayerIsExported() {
+        //http.server.requests is recorded by a servlet filter, which the mock mvc of the other tests goes without
+        mockMvc = MockMvcBuilders.webAppContextSetup(applicationContext).addFilters(metricsFilter.getFilter()).build();
+        perform(get(URL_TEMPLATE + EMPLOYEE_ID, 5L)).andExpect(status().isOk());
+        perform(get(URL_TEMPLATE + EMPLOYEE_ID, 5L)).andExpect(status().isOk());
+
+        //the service timer wraps the cache, hits are timed as well
+        assertThat(meterRegistry.get("employee.service").tag("method", "getEmployee").timer().count())
+                .isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get("http.server.requests").tag("handler", "getEmployee").timer().count())
+                .isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get("spring.data.repository.invocations").tag("repository", "EmployeeRepository")
+                .timers()).isNotEmpty();
+        assertThat(meterRegistry.get("hikaricp.connections.active").gauge()).isNotNull();
+
+        String scrape = perform(get("/actuator/prometheus")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape).contains("employee_service_seconds_bucket{", "http_server_requests_seconds_bucket{",
+                "spring_data_repository_invocations_seconds_bucket{");
+    }
+
+    @SneakyThrows
+    @Test
+    void createdEmployeeIsNotReportedMissing() {
+        MvcResult mvcResult = perform(post(URL_TEMPLATE + "bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BulkEmployeeSaveDTO(
+                                Collections.singletonList(new EmployeeInfoDTO("Before", 1000, "HR"))))))
+                .andExpect(status().isCreated()).andReturn();
+        long nextId = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeSaveResultDTO.class)
+                .getResults().get(0).getId() + 1;
+        //looked up before it exists, the miss is cached
+        perform(get(URL_TEMPLATE + EMPLOYEE_ID, nextId)).andExpect(status().isNotFound());
+
+        perform(post(URL_TEMPLATE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new EmployeeInfoDTO("After", 1000, "HR"))))
+                .andExpect(status().isCreated());
+        mvcResult = perform(get(URL_TEMPLATE + EMPLOYEE_ID, nextId)).andExpect(status().isOk()).andReturn();
+        assertEquals("After", mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeeDTO.class).getName());
+    }
+
+    @SneakyThrows
+    @Test
+    void getEmployeesByIds() {
+        //one of them goes through the single employee cache first
+        perform(get(URL_TEMPLATE + EMPLOYEE_ID, 3L)).andExpect(status().isOk());
+
+        MvcResult mvcResult = perform(get(URL_TEMPLATE).param("ids", "4", "3", "9999", "1"))
+                .andExpect(status().isOk()).andReturn();
+        BulkEmployeeGetDTO result = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeGetDTO.class);
+        assertEquals(Arrays.asList(employees.get(4L), employees.get(3L), employees.get(1L)), result.getEmployees());
+    }
+
+    @SneakyThrows
+    @Test
+    void searchEmployeeNames() {
+        MvcResult mvcResult = perform(post(URL_TEMPLATE + "bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BulkEmployeeSaveDTO(Arrays.asList(
+                                new EmployeeInfoDTO("Quentin Typeahead", 4000, "HR"),
+                                new EmployeeInfoDTO("Typeahead Quinn", 4000, "HR"))))))
+                .andExpect(status().isCreated()).andReturn();
+        BulkEmployeeSaveResultDTO created = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeSaveResultDTO.class);
+        Long quentinId = created.getResults().get(0).getId();
+        Long quinnId = created.getResults().get(1).getId();
+
+        mvcResult = perform(get(URL_TEMPLATE + "names").param("query", "typeahead"))
+                .andExpect(status().isOk()).andReturn();
+        EmployeeNameSearchDTO result = mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeeNameSearchDTO.class);
+        assertEquals(Arrays.asList(new EmployeeNameDTO(quinnId, "Typeahead Quinn"), new EmployeeNameDTO(quentinId, "Quentin Typeahead")),
+                result.getEmployees());
+
+        perform(delete(URL_TEMPLATE + EMPLOYEE_ID, quinnId)).andExpect(status().isOk());
+        mvcResult = perform(get(URL_TEMPLATE + "names").param("query", "typeahead"))
+                .andExpect(status().isOk()).andReturn();
+        result = mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeeNameSearchDTO.class);
+        assertEquals(Collections.singletonList(new EmployeeNameDTO(quentinId, "Quentin Typeahead")), result.getEmployees());
+    }
+
+    @SneakyThrows
+    @Test
+    void getEmployeeIfNoneMatch() {
+        long employeeId = 4L;
+        MvcResult mvcResult = perform(get(URL_TEMPLATE + EMPLOYEE_ID, employeeId))
+                .andExpect(status().isOk()).andReturn();
+        String eTag = mvcResult.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+        //json, smile and cbor share the ETag
+        assertThat(mvcResult.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+        perform(get(URL_TEMPLATE + EMPLOYEE_ID, employeeId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        perform(patch(URL_TEMPLATE + EMPLOYEE_ID, employeeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"salary\": 4100}"))
+                .andExpect(status().isOk());
+        String newETag = perform(get(URL_TEMPLATE + EMPLOYEE_ID, employeeId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotEqualTo(eTag);
+    }
+
+    @SneakyThrows
+    @Test
+    void getEmployeeFromEncodedBody() {
+        long employeeId = 4L;
+        CaffeineCache bodyCache = (CaffeineCache) cacheManager.getCache("employeeBodyCache");
+        bodyCache.clear();
+        int bodyBytes = 0;
+        for (int i = 0; i < 2; i++) {
+            MvcResult mvcResult = perform(get(URL_TEMPLATE + EMPLOYEE_ID, employeeId)).andExpect(status().isOk()).andReturn();
+            assertEquals(employees.get(employeeId).getName(),
+                    mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeeDTO.class).getName());
+            bodyBytes = mvcResult.getResponse().getContentAsByteArray().length;
+            mvcResult = perform(get(URL_TEMPLATE + EMPLOYEE_ID, employeeId).accept("application/x-jackson-smile"))
+                    .andExpect(status().isOk()).andReturn();
+            assertEquals(employees.get(employeeId).getName(), new ObjectMapper(new SmileFactory())
+                    .readValue(mvcResult.getResponse().getContentAsByteArray(), EmployeeDTO.class).getName());
+            bodyBytes += mvcResult.getResponse().getContentAsByteArray().length;
+        }
+        assertThat(bodyCache.get(employeeId, EncodedEmployee.class)).isNotNull();
+        //both bodies count against the maximum weight of the cache, once the pending weight updates are applied
+        bodyCache.getNativeCache().cleanUp();
+        assertThat(bodyCache.getNativeCache().policy().eviction().get().weightedSize().getAsLong())
+                .isGreaterThan(bodyBytes);
+
+        perform(patch(URL_TEMPLATE + EMPLOYEE_ID, employeeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Shawn Patched\"}"))
+                .andExpect(status().isOk());
+        assertThat(bodyCache.get(employeeId)).isNull();
+        MvcResult mvcResult = perform(get(URL_TEMPLATE + EMPLOYEE_ID, employeeId)).andExpect(status().isOk()).andReturn();
+        assertEquals("Shawn Patched", mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeeDTO.class).getName());
+    }
+
+    @SneakyThrows
+    @Test
+    void getEmployeesIfNoneMatch() {
+        String eTag = perform(get(URL_TEMPLATE).param("limit", "2"))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+        perform(get(URL_TEMPLATE).param("limit", "2").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        perform(post(URL_TEMPLATE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new EmployeeInfoDTO("Etag", 1000, "HR"))))
+                .andExpect(status().isCreated());
+        perform(get(URL_TEMPLATE).param("limit", "2").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
     @SneakyThrows
     @Test
     public void testGetEmployee() {
         Long employeeId = 1L;
-        MvcResult mvcResult = mockMvc.perform(get(URL_TEMPLATE + "/" + EMPLOYEE_ID, employeeId)).andReturn();
+        MvcResult mvcResult = perform(get(URL_TEMPLATE + "/" + EMPLOYEE_ID, employeeId)).andReturn();
         EmployeeDTO e = mapper.readValue(mvcResult.getResponse().getContentAsString(), EmployeeDTO.class);
         assertThat(e).isNotNull();
         assertEquals(e, employees.get(employeeId));
@@ -93,7 +433,7 @@ public class EmployeeServicesIntegrationTests {
     public void testSaveEmployee() {
         EmployeeInfoDTO employeeToCreate = new EmployeeInfoDTO("John", 5000, "SALES");
 
-        mockMvc.perform(post(URL_TEMPLATE)
+        perform(post(URL_TEMPLATE)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(employeeToCreate))
                         .accept(MediaType.APPLICATION_JSON))
@@ -106,13 +446,35 @@ public class EmployeeServicesIntegrationTests {
         assert (createdEmployee.isPresent());
     }
 
+    @SneakyThrows
+    @Test
+    public void testSaveEmployees() {
+        List<EmployeeInfoDTO> employeesToCreate = Arrays.asList(new EmployeeInfoDTO("Kenji", 4000, "HR"),
+                new EmployeeInfoDTO("Mei", 6000, "SALES"), new EmployeeInfoDTO("Taro", 3000, "Test"));
+
+        MvcResult mvcResult = perform(post(URL_TEMPLATE + "bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BulkEmployeeSaveDTO(employeesToCreate)))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        BulkEmployeeSaveResultDTO result = mapper.readValue(mvcResult.getResponse().getContentAsString(), BulkEmployeeSaveResultDTO.class);
+        assertEquals(employeesToCreate.size(), result.getResults().size());
+        for (EmployeeSaveResultDTO itemResult : result.getResults()) {
+            Optional<Employee> created = employeeRepository.findById(itemResult.getId());
+            assertTrue(created.isPresent());
+            assertEquals(employeesToCreate.get(itemResult.getIndex()).getName(), created.get().getName());
+        }
+    }
+
     @SneakyThrows
     @Test
     public void testUpdateEmployee() {
         long employeeId = 1L;
         EmployeeDTO employeeToUpdate = new EmployeeDTO("Hashimoto", 3000, "HR", employeeId);
 
-        mockMvc.perform(put(URL_TEMPLATE, employeeId)
+        perform(put(URL_TEMPLATE, employeeId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(employeeToUpdate))
                         .accept(MediaType.APPLICATION_JSON)
@@ -124,11 +486,38 @@ public class EmployeeServicesIntegrationTests {
         assertEquals(employee.get().getSalary(), employeeToUpdate.getSalary());
     }
 
+    @SneakyThrows
+    @Test
+    public void testPatchEmployee() {
+        long employeeId = 3L;
+        perform(patch(URL_TEMPLATE + EMPLOYEE_ID, employeeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"salary\":3500}")
+                        .accept(MediaType.APPLICATION_JSON)
+                ).andExpect(status().isOk());
+        Optional<Employee> employee = employeeRepository.findById(employeeId);
+
+        assertTrue(employee.isPresent());
+        assertEquals(3500, employee.get().getSalary());
+        assertEquals(employees.get(employeeId).getName(), employee.get().getName());
+        assertEquals(employees.get(employeeId).getDepartment(), employee.get().getDepartment());
+    }
+
+    @SneakyThrows
+    @Test
+    public void testPatchEmployee_EntityAbsent() {
+        perform(patch(URL_TEMPLATE + EMPLOYEE_ID, 9999L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"salary\":3500}")
+                        .accept(MediaType.APPLICATION_JSON)
+                ).andExpect(status().isNotFound());
+    }
+
     @SneakyThrows
     @Test
     public void testDeleteEmployee() {
         long employeeId = 2L;
-        this.mockMvc.perform(delete(URL_TEMPLATE + EMPLOYEE_ID, employeeId))
+        perform(delete(URL_TEMPLATE + EMPLOYEE_ID, employeeId))
                 .andExpect(status().isOk());
         assertFalse(employeeRepository.existsById(2L));
     }
@@ -0,0 +1,181 @@
+package jp.co.axa.api.demo.integrationtest.employee;
+
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSaveResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The employee API on the webflux and r2dbc stack of the {@code reactive} profile, through a real netty server.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+public class ReactiveEmployeeServicesIntegrationTests {
+
+    private static final String URL_TEMPLATE = "/api/v1/employees/";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WebTestClient admin;
+    private WebTestClient user;
+
+    private List<EmployeeSaveResultDTO> created;
+
+    @BeforeEach
+    void initialize() {
+        admin = webTestClient.mutate().defaultHeaders(headers -> headers.setBasicAuth("admin", "admin")).build();
+        user = webTestClient.mutate().defaultHeaders(headers -> headers.setBasicAuth("user", "user")).build();
+        BulkEmployeeSaveDTO employees = new BulkEmployeeSaveDTO(Arrays.asList(
+                new EmployeeInfoDTO("Reactive Rin", 4000, "Devops"),
+                new EmployeeInfoDTO("Reactive Ren", 5000, "Finance"),
+                new EmployeeInfoDTO("Reactive Ran", 6000, "Devops")));
+        created = admin.post().uri(URL_TEMPLATE + "bulk").bodyValue(employees)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BulkEmployeeSaveResultDTO.class).returnResult().getResponseBody().getResults();
+    }
+
+    private Long createdId(int index) {
+        return created.get(index).getId();
+    }
+
+    @Test
+    void getEmployee() {
+        EmployeeDTO employee = user.get().uri(URL_TEMPLATE + "{id}", createdId(0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody(EmployeeDTO.class).returnResult().getResponseBody();
+        assertEquals("Reactive Rin", employee.getName());
+        assertEquals(4000, employee.getSalary());
+
+        String eTag = user.get().uri(URL_TEMPLATE + "{id}", createdId(0)).exchange()
+                .returnResult(EmployeeDTO.class).getResponseHeaders().getETag();
+        user.get().uri(URL_TEMPLATE + "{id}", createdId(0)).header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        user.get().uri(URL_TEMPLATE + "{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getEmployeesPageByPage() {
+        List<Long> pagedIds = new ArrayList<>();
+        Long cursor = 0L;
+        do {
+            EmployeePageDTO page = user.get().uri(URL_TEMPLATE + "?limit=2&after={after}", cursor)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(EmployeePageDTO.class).returnResult().getResponseBody();
+            assertThat(page.getEmployees().size()).isLessThanOrEqualTo(2);
+            page.getEmployees().forEach(employee -> pagedIds.add(employee.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Long> allIds = user.get().uri(URL_TEMPLATE + "?all=true")
+                .exchange()
+                .expectBody(BulkEmployeeGetDTO.class).returnResult().getResponseBody()
+                .getEmployees().stream().map(EmployeeDTO::getId).collect(Collectors.toList());
+        assertEquals(allIds, pagedIds);
+        assertThat(pagedIds).contains(createdId(0), createdId(1), createdId(2));
+
+        EmployeeFieldsPageDTO fields = user.get().uri(URL_TEMPLATE + "?fields=name&after={after}&limit=1", createdId(0) - 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EmployeeFieldsPageDTO.class).returnResult().getResponseBody();
+        assertEquals(Arrays.asList("id", "name"), new ArrayList<>(fields.getEmployees().get(0).keySet()));
+        assertEquals("Reactive Rin", fields.getEmployees().get(0).get("name"));
+    }
+
+    @Test
+    void getEmployeesByIdsSearchAndStream() {
+        BulkEmployeeGetDTO byIds = user.get().uri(URL_TEMPLATE + "?ids={a},{b},{c}", createdId(2), Long.MAX_VALUE, createdId(0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkEmployeeGetDTO.class).returnResult().getResponseBody();
+        assertEquals(Arrays.asList(createdId(2), createdId(0)),
+                byIds.getEmployees().stream().map(EmployeeDTO::getId).collect(Collectors.toList()));
+
+        BulkEmployeeGetDTO search = user.get().uri(URL_TEMPLATE + "search?department=Devops&minSalary=4000&maxSalary=6000&sort=SALARY&direction=DESC")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkEmployeeGetDTO.class).returnResult().getResponseBody();
+        assertThat(search.getEmployees()).extracting(EmployeeDTO::getSalary).isSortedAccordingTo(Collections.reverseOrder());
+        assertThat(search.getEmployees()).extracting(EmployeeDTO::getId).contains(createdId(0), createdId(2));
+
+        EmployeeNameSearchDTO names = user.get().uri(URL_TEMPLATE + "names?query=reactive r&limit=500")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EmployeeNameSearchDTO.class).returnResult().getResponseBody();
+        assertThat(names.getEmployees()).contains(new EmployeeNameDTO(createdId(1), "Reactive Ren"));
+
+        List<EmployeeDTO> streamed = user.get().uri(URL_TEMPLATE + "stream").accept(MediaType.parseMediaType("application/x-ndjson"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EmployeeDTO.class).getResponseBody().collectList().block();
+        assertThat(streamed).extracting(EmployeeDTO::getId).contains(createdId(0), createdId(1), createdId(2));
+    }
+
+    @Test
+    void updatePatchAndDeleteEmployee() {
+        Long employeeId = createdId(1);
+        user.get().uri(URL_TEMPLATE + "{id}", employeeId).exchange().expectStatus().isOk();
+
+        admin.put().uri(URL_TEMPLATE).bodyValue(new EmployeeDTO("Reactive Updated", 5500, "Finance", employeeId))
+                .exchange()
+                .expectStatus().isOk();
+        EmployeeDTO updated = user.get().uri(URL_TEMPLATE + "{id}", employeeId).exchange()
+                .expectBody(EmployeeDTO.class).returnResult().getResponseBody();
+        assertEquals("Reactive Updated", updated.getName());
+
+        admin.patch().uri(URL_TEMPLATE + "{id}", employeeId).bodyValue(new EmployeePatchDTO(null, 6500, null))
+                .exchange()
+                .expectStatus().isOk();
+        EmployeeDTO patched = user.get().uri(URL_TEMPLATE + "{id}", employeeId).exchange()
+                .expectBody(EmployeeDTO.class).returnResult().getResponseBody();
+        assertEquals("Reactive Updated", patched.getName());
+        assertEquals(6500, patched.getSalary());
+
+        admin.delete().uri(URL_TEMPLATE + "{id}", employeeId).exchange().expectStatus().isOk();
+        user.get().uri(URL_TEMPLATE + "{id}", employeeId).exchange().expectStatus().isNotFound();
+        admin.delete().uri(URL_TEMPLATE + "{id}", employeeId).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void securityRulesApply() {
+        webTestClient.get().uri(URL_TEMPLATE + "{id}", createdId(0)).exchange().expectStatus().isUnauthorized();
+        user.post().uri(URL_TEMPLATE).bodyValue(new EmployeeInfoDTO("Not Allowed", 1000, "HR"))
+                .exchange()
+                .expectStatus().isForbidden();
+        admin.post().uri(URL_TEMPLATE).bodyValue(new EmployeeInfoDTO("", 1000, "HR"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,155 @@
+package jp.co.axa.api.demo.integrationtest.employee;
+
+import jp.co.axa.api.demo.configuration.DatasetProperties;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSortField;
+import jp.co.axa.api.demo.repositories.employee.EmployeeRepository;
+import jp.co.axa.api.demo.services.employee.EmployeeService;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+import static jp.co.axa.api.demo.configuration.CacheConfiguration.EMPLOYEE_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * List, search and cache behavior on the synthetic dataset of the {@code scale-test} profile, against latency and
+ * memory budgets. Latencies are medians of repeated calls to the service, after a warm up.
+ * <p>
+ * Not part of the build, run with {@code mvn test -Pscale-test}. Set the size with {@code -Dapi.demo.dataset.rows}
+ * and the budgets with {@code -Dscale.page-budget-ms}, {@code -Dscale.search-budget-ms},
+ * {@code -Dscale.name-search-budget-ms}, {@code -Dscale.cache-hit-budget-us} and {@code -Dscale.heap-budget-mb}.
+ */
+@Tag("scale")
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("scale-test")
+public class ScaleIntegrationTests {
+
+    private static final long PAGE_BUDGET_MS = Long.getLong("scale.page-budget-ms", 20);
+    private static final long SEARCH_BUDGET_MS = Long.getLong("scale.search-budget-ms", 50);
+    private static final long NAME_SEARCH_BUDGET_MS = Long.getLong("scale.name-search-budget-ms", 50);
+    private static final long CACHE_HIT_BUDGET_US = Long.getLong("scale.cache-hit-budget-us", 200);
+    private static final long HEAP_BUDGET_MB = Long.getLong("scale.heap-budget-mb", 2048);
+
+    private static final int WARMUP = 20;
+    private static final int SAMPLES = 21;
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DatasetProperties datasetProperties;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void datasetIsLoaded() {
+        //ids of the dataset start at one, employees created by other tests come after them
+        assertThat(employeeRepository.count()).isGreaterThanOrEqualTo(datasetProperties.getRows());
+        assertThat(employeeRepository.existsById(1L)).isTrue();
+        assertThat(employeeRepository.existsById(datasetProperties.getRows())).isTrue();
+    }
+
+    @Test
+    void createdEmployeesGetIdsAfterTheDataset() {
+        Long id = employeeService.saveEmployees(Collections.singletonList(new EmployeeInfoDTO("Scale Test", 5000, "HR")))
+                .getResults().get(0).getId();
+        assertThat(id).isGreaterThan(datasetProperties.getRows());
+    }
+
+    @SneakyThrows
+    @Test
+    void pagesStayWithinBudget() {
+        long middle = datasetProperties.getRows() / 2;
+        long firstPage = medianNanos(() -> employeeService.retrieveEmployees(null, PAGE_SIZE));
+        long middlePage = medianNanos(() -> employeeService.retrieveEmployees(middle, PAGE_SIZE));
+
+        EmployeePageDTO page = employeeService.retrieveEmployees(middle, PAGE_SIZE);
+        assertEquals(PAGE_SIZE, page.getEmployees().size());
+        assertEquals(middle + 1, page.getEmployees().get(0).getId());
+        assertThat(millis(firstPage)).isLessThanOrEqualTo(PAGE_BUDGET_MS);
+        assertThat(millis(middlePage)).isLessThanOrEqualTo(PAGE_BUDGET_MS);
+    }
+
+    @SneakyThrows
+    @Test
+    void searchStaysWithinBudget() {
+        EmployeeSearchDTO criteria = new EmployeeSearchDTO("Engineering", 7000, 7100, EmployeeSortField.SALARY,
+                Sort.Direction.DESC, PAGE_SIZE);
+        long search = medianNanos(() -> employeeService.searchEmployees(criteria));
+
+        BulkEmployeeGetDTO result = employeeService.searchEmployees(criteria);
+        assertEquals(PAGE_SIZE, result.getEmployees().size());
+        assertThat(result.getEmployees()).allMatch(employee -> "Engineering".equals(employee.getDepartment())
+                && employee.getSalary() >= 7000 && employee.getSalary() <= 7100);
+        assertThat(millis(search)).isLessThanOrEqualTo(SEARCH_BUDGET_MS);
+    }
+
+    @SneakyThrows
+    @Test
+    void nameSearchStaysWithinBudget() {
+        long nameSearch = medianNanos(() -> employeeService.searchEmployeeNames("tanaka", 10));
+
+        assertThat(employeeService.searchEmployeeNames("tanaka", 10).getEmployees()).hasSize(10);
+        assertThat(millis(nameSearch)).isLessThanOrEqualTo(NAME_SEARCH_BUDGET_MS);
+    }
+
+    @SneakyThrows
+    @Test
+    void cachedEmployeesStayWithinBudget() {
+        long id = datasetProperties.getRows() / 3;
+        EmployeeDTO employee = employeeService.getEmployee(id);
+        long hit = medianNanos(() -> employeeService.getEmployee(id));
+
+        assertNotNull(cacheManager.getCache(EMPLOYEE_CACHE).get(id));
+        assertEquals(employee.getName(), employeeService.getEmployee(id).getName());
+        assertThat(hit / 1000).isLessThanOrEqualTo(CACHE_HIT_BUDGET_US);
+    }
+
+    @Test
+    void heapStaysWithinBudget() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        assertThat(usedMb).isLessThanOrEqualTo(HEAP_BUDGET_MB);
+    }
+
+    @SneakyThrows
+    private static long medianNanos(Callable<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.call();
+        }
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            call.call();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
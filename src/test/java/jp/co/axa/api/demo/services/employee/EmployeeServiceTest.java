@@ -3,12 +3,24 @@ package jp.co.axa.api.demo.services.employee;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.Resources;
 import jp.co.axa.api.demo.dto.employee.BulkEmployeeGetDTO;
+import jp.co.axa.api.demo.dto.employee.BulkEmployeeSaveResultDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeField;
+import jp.co.axa.api.demo.dto.employee.EmployeeFieldsPageDTO;
 import jp.co.axa.api.demo.dto.employee.EmployeeInfoDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeNameSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePageDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeePatchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSearchDTO;
+import jp.co.axa.api.demo.dto.employee.EmployeeSortField;
 import jp.co.axa.api.demo.dto.response.VoidResponseDTO;
 import jp.co.axa.api.demo.entities.employee.Employee;
 import jp.co.axa.api.demo.exceptions.EmployeeAPIException;
+import jp.co.axa.api.demo.exceptions.EmployeeNotFoundException;
+import jp.co.axa.api.demo.mappers.employee.EmployeeMapper;
 import jp.co.axa.api.demo.repositories.employee.EmployeeRepository;
+import jp.co.axa.api.demo.services.employee.index.EmployeeNameIndex;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,18 +28,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import javax.persistence.EntityManager;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTest {
@@ -39,14 +63,30 @@ public class EmployeeServiceTest {
     EmployeeRepository employeeRepository;
 
     @Spy
-    ModelMapper m;
+    EmployeeMapper m;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Spy
+    EmployeeNameIndex nameIndex;
+
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+    EmployeeChangeCounter changeCounter = new EmployeeChangeCounter();
     Map<Long, Employee> employeeData = new HashMap<>();
 
     private static final String EMPLOYEE_DATA_FILE = "employee-data/employee-mock-data.json";
 
     @BeforeEach
     void init() throws IOException {
-        employeeService = new EmployeeServiceImpl(employeeRepository, m);
+        EmployeeServiceImpl serviceImpl = new EmployeeServiceImpl(employeeRepository, m, entityManager, nameIndex, cacheManager,
+                changeCounter);
+        serviceImpl.defaultPageLimit = 3;
+        serviceImpl.maxPageLimit = 10;
+        serviceImpl.batchSize = 2;
+        serviceImpl.defaultNameSearchLimit = 2;
+        employeeService = serviceImpl;
         //some initial default data to run tests on
         initializeEmployeeData();
         //this method is to initialize mock data that would be common in most tests.
@@ -55,11 +95,17 @@ public class EmployeeServiceTest {
 
     private void initializeMockData() {
         for (Map.Entry<Long, Employee> employee : employeeData.entrySet()) {
-            lenient().doReturn(Optional.ofNullable(employee.getValue())).when(employeeRepository).findById(employee.getKey());
-            lenient().doNothing().when(employeeRepository).deleteById(employee.getKey());
-            lenient().doReturn(true).when(employeeRepository).existsById(employee.getKey());
+            lenient().doReturn(Optional.of(m.toDTO(employee.getValue()))).when(employeeRepository).findDTOById(employee.getKey());
+            lenient().doReturn(1).when(employeeRepository).removeById(employee.getKey());
         }
-        lenient().doReturn(employeeData.values()).when(employeeRepository).findAll();
+        lenient().doReturn(sortedEmployeeDTOs()).when(employeeRepository).findAllDTOs();
+    }
+
+    private List<EmployeeDTO> sortedEmployeeDTOs() {
+        return employeeData.values().stream()
+                .sorted(Comparator.comparing(Employee::getId))
+                .map(m::toDTO)
+                .collect(Collectors.toList());
     }
 
     private void initializeEmployeeData() throws IOException {
@@ -82,13 +128,95 @@ public class EmployeeServiceTest {
     public void createEmployeesTest() {
         EmployeeInfoDTO saveEmployee = new EmployeeInfoDTO("Rohan", 5000, "Sales");
         EmployeeDTO savedEmployeeDto = new EmployeeDTO("Rohan", 5000, "Sales", 122L);
-        Employee savedEmployee = m.map(savedEmployeeDto, Employee.class);
+        Employee savedEmployee = m.toEntity(savedEmployeeDto);
         lenient().doReturn(savedEmployee).when(employeeRepository).save(any(Employee.class));
 
         VoidResponseDTO responseDTO = employeeService.saveEmployee(saveEmployee);
         assertThat(responseDTO).isNotNull();
         String expectedResponse = String.format(CommonResponseMessage.CREATE_SUCCESSFUL.getMessage(), EMPLOYEE, 122L);
         assertEquals(expectedResponse, responseDTO.getResponse());
+        verify(nameIndex).put(122L, "Rohan");
+    }
+
+    @Test
+    public void createEmployeesInBulkTest() {
+        List<EmployeeInfoDTO> toCreate = Arrays.asList(new EmployeeInfoDTO("Rohan", 5000, "Sales"),
+                new EmployeeInfoDTO("Ken", 4000, "HR"), new EmployeeInfoDTO("Mei", 6000, "Sales"));
+        long[] nextId = {100L};
+        lenient().doAnswer(invocation -> {
+            Iterable<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setId(nextId[0]++));
+            return employees;
+        }).when(employeeRepository).saveAll(any());
+
+        BulkEmployeeSaveResultDTO result = employeeService.saveEmployees(toCreate);
+        assertEquals(String.format(CommonResponseMessage.BULK_CREATE_SUCCESSFUL.getMessage(), 3, EMPLOYEE), result.getResponse());
+        assertEquals(3, result.getResults().size());
+        for (int i = 0; i < toCreate.size(); i++) {
+            assertEquals(i, result.getResults().get(i).getIndex());
+            assertEquals(100L + i, result.getResults().get(i).getId());
+        }
+        //batch size is 2, so the three employees are written in two flushes
+        verify(employeeRepository, times(2)).saveAll(any());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        assertEquals(Collections.singletonList(new EmployeeNameDTO(102L, "Mei")), nameIndex.search("mei", 10));
+    }
+
+    @SneakyThrows
+    @Test
+    public void getEmployeesByIdsTest() {
+        EmployeeDTO cached = m.toDTO(employeeData.get(3L));
+        cacheManager.getCache("employeeCache").put(3L, cached);
+        List<EmployeeDTO> loaded = Arrays.asList(m.toDTO(employeeData.get(1L)), m.toDTO(employeeData.get(2L)));
+        lenient().doReturn(loaded).when(employeeRepository).findDTOsByIds(Arrays.asList(2L, 99L, 1L));
+
+        BulkEmployeeGetDTO result = employeeService.getEmployees(Arrays.asList(2L, 3L, 99L, 1L, 3L));
+        //request order, duplicates once, unknown ids skipped
+        assertEquals(Arrays.asList(loaded.get(1), cached, loaded.get(0)), result.getEmployees());
+        verify(employeeRepository).findDTOsByIds(Arrays.asList(2L, 99L, 1L));
+        assertEquals(loaded.get(0), cacheManager.getCache("employeeCache").get(1L, EmployeeDTO.class));
+
+        //everything is cached now, 99 as missing, the database is not queried again
+        employeeService.getEmployees(Arrays.asList(1L, 2L, 3L, 99L));
+        verify(employeeRepository, times(1)).findDTOsByIds(any());
+    }
+
+    @SneakyThrows
+    @Test
+    public void getEmployeesByIdsTest_UpdatedWhileLoading() {
+        EmployeeDTO old = new EmployeeDTO("Glow", 2000, "Development", 2L, 1L);
+        EmployeeDTO updated = new EmployeeDTO("Glow", 2500, "Development", 2L, 2L);
+        lenient().doReturn(1).when(employeeRepository).updateById(2L, updated.getName(), updated.getSalary(), updated.getDepartment());
+        //the update commits, is counted and evicts the employee after the query read the old row, before its put
+        doAnswer(invocation -> {
+            employeeService.updateEmployee(updated);
+            cacheManager.getCache("employeeCache").evict(2L);
+            return Collections.singletonList(old);
+        }).doReturn(Collections.singletonList(updated)).when(employeeRepository).findDTOsByIds(Collections.singletonList(2L));
+
+        assertEquals(Collections.singletonList(old), employeeService.getEmployees(Collections.singletonList(2L)).getEmployees());
+        assertNull(cacheManager.getCache("employeeCache").get(2L));
+
+        assertEquals(Collections.singletonList(updated), employeeService.getEmployees(Collections.singletonList(2L)).getEmployees());
+        //the cache of the single get, and of its ETag, holds the new version
+        assertEquals(updated, cacheManager.getCache("employeeCache").get(2L, EmployeeDTO.class));
+    }
+
+    @Test
+    public void employeeCacheLoaderTest() {
+        EmployeeCacheLoader loader = new EmployeeCacheLoader(employeeRepository);
+        assertEquals(m.toDTO(employeeData.get(2L)), loader.load(2L));
+        //no employee, caffeine drops the entry
+        assertThat(loader.load(99L)).isNull();
+    }
+
+    @Test
+    public void getEmployeesByIdsTest_TooManyIds() {
+        List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+        EmployeeAPIException exception = assertThrows(EmployeeAPIException.class, () -> employeeService.getEmployees(ids));
+        assertEquals(String.format(CommonResponseMessage.VALIDATION_ISSUE.getMessage(), "ids"), exception.getMessage());
+        assertThrows(EmployeeAPIException.class, () -> employeeService.getEmployees(Collections.emptyList()));
     }
 
     /**
@@ -100,12 +228,62 @@ public class EmployeeServiceTest {
     public void getEmployeeTest_InvalidID() {
         //following id is not present in employeeData
         long empId = 9L;
-        Exception exception = assertThrows(EmployeeAPIException.class, () -> employeeService.getEmployee(empId));
+        Exception exception = assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployee(empId));
         String actualMessage = exception.getMessage();
         String messageFormat = CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage();
         assertTrue(actualMessage.contains(String.format(messageFormat, EMPLOYEE)));
     }
 
+    @Test
+    public void getEmployeeTest_MissIsCached() {
+        assertThrows(EmployeeAPIException.class, () -> employeeService.getEmployee(9L));
+        assertThrows(EmployeeAPIException.class, () -> employeeService.getEmployee(9L));
+        verify(employeeRepository, times(1)).findDTOById(9L);
+    }
+
+    @SneakyThrows
+    @Test
+    public void getEmployeeTest_CreatedAfterMiss() {
+        assertThrows(EmployeeAPIException.class, () -> employeeService.getEmployee(122L));
+        EmployeeDTO created = new EmployeeDTO("Rohan", 5000, "Sales", 122L);
+        lenient().doReturn(m.toEntity(created)).when(employeeRepository).save(any(Employee.class));
+        lenient().doReturn(Optional.of(created)).when(employeeRepository).findDTOById(122L);
+
+        employeeService.saveEmployee(new EmployeeInfoDTO("Rohan", 5000, "Sales"));
+        assertEquals(created, employeeService.getEmployee(122L));
+    }
+
+    @SneakyThrows
+    @Test
+    public void getEmployeeTest_CreatedWhileLookingUp() {
+        EmployeeDTO created = new EmployeeDTO("Rohan", 5000, "Sales", 122L);
+        CountDownLatch queried = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        //the lookup misses, the create commits and evicts the miss cache, only then the lookup puts its miss
+        doAnswer(invocation -> {
+            queried.countDown();
+            committed.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        }).doReturn(Optional.of(created)).when(employeeRepository).findDTOById(122L);
+        lenient().doReturn(Collections.singletonList(created)).when(employeeRepository).findDTOsByIds(Collections.singletonList(122L));
+        lenient().doReturn(m.toEntity(created)).when(employeeRepository).save(any(Employee.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> lookup = executor.submit(() ->
+                    assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployee(122L)));
+            assertTrue(queried.await(5, TimeUnit.SECONDS));
+            employeeService.saveEmployee(new EmployeeInfoDTO("Rohan", 5000, "Sales"));
+            committed.countDown();
+            lookup.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+        //the late miss predates the create, it is not trusted
+        assertEquals(Collections.singletonList(created), employeeService.getEmployees(Collections.singletonList(122L)).getEmployees());
+        assertEquals(created, employeeService.getEmployee(122L));
+    }
+
     @SneakyThrows
     @Test
     public void getAllEmployeesTest() {
@@ -117,18 +295,135 @@ public class EmployeeServiceTest {
         assertTrue(availableIds.containsAll(idsFromService));
     }
 
+    @SneakyThrows
+    @Test
+    public void getEmployeesPageTest_HasNextPage() {
+        List<EmployeeDTO> sorted = sortedEmployeeDTOs();
+        //default limit is 3, so one extra row is asked for to detect the next page
+        lenient().doReturn(sorted).when(employeeRepository).findDTOsAfter(0L, PageRequest.of(0, 4));
+
+        EmployeePageDTO page = employeeService.retrieveEmployees(null, null);
+        assertEquals(3, page.getEmployees().size());
+        assertEquals(sorted.get(2).getId(), page.getNextCursor());
+    }
+
+    @SneakyThrows
+    @Test
+    public void getEmployeesPageTest_LastPage() {
+        List<EmployeeDTO> lastPage = Collections.singletonList(m.toDTO(employeeData.get(4L)));
+        lenient().doReturn(lastPage).when(employeeRepository).findDTOsAfter(3L, PageRequest.of(0, 3));
+
+        EmployeePageDTO page = employeeService.retrieveEmployees(3L, 2);
+        assertEquals(1, page.getEmployees().size());
+        assertEquals(4L, page.getEmployees().get(0).getId());
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @SneakyThrows
+    @Test
+    public void getEmployeesPageTest_LimitCapped() {
+        lenient().doReturn(Collections.emptyList()).when(employeeRepository).findDTOsAfter(eq(0L), any());
+
+        employeeService.retrieveEmployees(null, 1000);
+        verify(employeeRepository).findDTOsAfter(0L, PageRequest.of(0, 11));
+    }
+
+    @Test
+    public void getEmployeesPageTest_InvalidLimit() {
+        EmployeeAPIException exception = assertThrows(EmployeeAPIException.class, () -> employeeService.retrieveEmployees(null, 0));
+        String messageFormat = CommonResponseMessage.VALIDATION_ISSUE.getMessage();
+        assertEquals(String.format(messageFormat, "limit"), exception.getMessage());
+    }
+
+    @SneakyThrows
+    @Test
+    public void getEmployeeFieldsPageTest() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put(Employee.ID, id);
+            row.put(Employee.NAME, employeeData.get(id).getName());
+            rows.add(row);
+        }
+        lenient().doReturn(rows).when(employeeRepository)
+                .findFieldsAfter(EnumSet.of(EmployeeField.NAME), 0L, 4);
+
+        EmployeeFieldsPageDTO page = employeeService.retrieveEmployees(Arrays.asList(" Name", "name"), null, null);
+        assertEquals(3, page.getEmployees().size());
+        assertEquals(3L, page.getNextCursor());
+        assertEquals(employeeData.get(1L).getName(), page.getEmployees().get(0).get(Employee.NAME));
+    }
+
+    @Test
+    public void getEmployeeFieldsPageTest_UnknownField() {
+        String message = String.format(CommonResponseMessage.VALIDATION_ISSUE.getMessage(), "fields");
+        EmployeeAPIException exception = assertThrows(EmployeeAPIException.class,
+                () -> employeeService.retrieveEmployees(Arrays.asList("name", "password"), null, null));
+        assertEquals(message, exception.getMessage());
+        exception = assertThrows(EmployeeAPIException.class,
+                () -> employeeService.retrieveEmployees(Collections.emptyList(), null, null));
+        assertEquals(message, exception.getMessage());
+    }
+
+    @SneakyThrows
+    @Test
+    public void searchEmployeesTest() {
+        EmployeeSearchDTO criteria = new EmployeeSearchDTO("HR", 500, 1500, EmployeeSortField.SALARY, Sort.Direction.DESC, null);
+        List<EmployeeDTO> matches = Collections.singletonList(m.toDTO(employeeData.get(1L)));
+        lenient().doReturn(matches).when(employeeRepository).search(criteria, 3);
+
+        BulkEmployeeGetDTO result = employeeService.searchEmployees(criteria);
+        assertEquals(matches, result.getEmployees());
+    }
+
+    @Test
+    public void searchEmployeesTest_EmptySalaryRange() {
+        EmployeeSearchDTO criteria = new EmployeeSearchDTO(null, 2000, 1000, EmployeeSortField.ID, Sort.Direction.ASC, null);
+        EmployeeAPIException exception = assertThrows(EmployeeAPIException.class, () -> employeeService.searchEmployees(criteria));
+        assertEquals(String.format(CommonResponseMessage.VALIDATION_ISSUE.getMessage(), "minSalary"), exception.getMessage());
+    }
+
+    @SneakyThrows
+    @Test
+    public void searchEmployeeNamesTest() {
+        employeeData.values().forEach(employee -> nameIndex.put(employee.getId(), employee.getName()));
+
+        EmployeeNameSearchDTO result = employeeService.searchEmployeeNames("al", null);
+        assertEquals(Collections.singletonList(new EmployeeNameDTO(3L, "Allan")), result.getEmployees());
+        //default limit is 2
+        verify(nameIndex).search("al", 2);
+        assertEquals(Collections.singletonList(new EmployeeNameDTO(1L, "Hashimoto")),
+                employeeService.searchEmployeeNames("SHIM", 10).getEmployees());
+    }
+
+    @Test
+    public void searchEmployeeNamesTest_BlankQuery() {
+        EmployeeAPIException exception = assertThrows(EmployeeAPIException.class, () -> employeeService.searchEmployeeNames(" ", null));
+        assertEquals(String.format(CommonResponseMessage.VALIDATION_ISSUE.getMessage(), "query"), exception.getMessage());
+    }
+
+    @Test
+    public void streamEmployeesTest() {
+        List<EmployeeDTO> sorted = sortedEmployeeDTOs();
+        lenient().doReturn(sorted.stream()).when(employeeRepository).streamAllDTOs();
+
+        List<EmployeeDTO> streamed = new ArrayList<>();
+        employeeService.streamEmployees(streamed::add);
+        assertEquals(sorted, streamed);
+    }
+
     @SneakyThrows
     @Test
     public void updateEmployeesTest_ValidInfo() {
         long id = 1L;
         EmployeeDTO savedEmployeeDto = new EmployeeDTO("Hashimoto", 5000, "HR", id);
-        Employee savedEmployee = m.map(savedEmployeeDto, Employee.class);
-        lenient().doReturn(savedEmployee).when(employeeRepository).save(savedEmployee);
+        lenient().doReturn(1).when(employeeRepository).updateById(id, "Hashimoto", 5000, "HR");
 
         VoidResponseDTO result = employeeService.updateEmployee(savedEmployeeDto);
         String expectedResponse = String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, id);
         assertThat(result).isNotNull();
         assertEquals(expectedResponse, result.getResponse());
+        verify(nameIndex).put(id, "Hashimoto");
     }
 
     /**
@@ -139,12 +434,35 @@ public class EmployeeServiceTest {
     public void updateEmployeesTest_EntityAbsent() {
 
         EmployeeDTO savedEmployeeDto = new EmployeeDTO("Rohan", 5000, "Sales", 234L);
-        EmployeeAPIException exception = assertThrows(EmployeeAPIException.class, () -> employeeService.updateEmployee(savedEmployeeDto));
+        EmployeeAPIException exception = assertThrows(EmployeeNotFoundException.class, () -> employeeService.updateEmployee(savedEmployeeDto));
         String actualMessage = exception.getMessage();
         String messageFormat = CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage();
         assertTrue(actualMessage.contains(String.format(messageFormat, EMPLOYEE)));
     }
 
+    @SneakyThrows
+    @Test
+    public void patchEmployeeTest_ValidInfo() {
+        long id = 2L;
+        lenient().doReturn(1).when(employeeRepository).updateNonNullFieldsById(id, null, 7000, null);
+        String version = employeeService.getEmployeesVersion();
+
+        VoidResponseDTO result = employeeService.patchEmployee(id, new EmployeePatchDTO(null, 7000, null));
+        String expectedResponse = String.format(CommonResponseMessage.UPDATE_SUCCESSFUL.getMessage(), EMPLOYEE, id);
+        assertEquals(expectedResponse, result.getResponse());
+        //the name did not change, the index is left alone
+        verify(nameIndex, times(0)).put(any(), any());
+        assertNotEquals(version, employeeService.getEmployeesVersion());
+    }
+
+    @Test
+    public void patchEmployeeTest_EntityAbsent() {
+        EmployeeAPIException exception = assertThrows(EmployeeAPIException.class,
+                () -> employeeService.patchEmployee(234L, new EmployeePatchDTO(null, 7000, null)));
+        String messageFormat = CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage();
+        assertEquals(String.format(messageFormat, EMPLOYEE), exception.getMessage());
+    }
+
     @SneakyThrows
     @Test
     public void deleteEmployeeTest_validID() {
@@ -153,6 +471,7 @@ public class EmployeeServiceTest {
         String expectedResponse = String.format(CommonResponseMessage.DELETE_SUCCESSFUL.getMessage(), EMPLOYEE, empId);
         assertThat(result).isNotNull();
         assertEquals(expectedResponse, result.getResponse());
+        verify(nameIndex).remove(empId);
     }
 
     /**
@@ -162,7 +481,7 @@ public class EmployeeServiceTest {
     public void deleteEmployeeTest_invalidID() {
         //id not present in database
         Long empId = 52L;
-        EmployeeAPIException exception = assertThrows(EmployeeAPIException.class, () -> employeeService.deleteEmployee(empId));
+        EmployeeAPIException exception = assertThrows(EmployeeNotFoundException.class, () -> employeeService.deleteEmployee(empId));
         String actualMessage = exception.getMessage();
         String messageFormat = CommonResponseMessage.ENTITY_UNAVAILABLE.getMessage();
         assertTrue(actualMessage.contains(String.format(messageFormat, EMPLOYEE)));
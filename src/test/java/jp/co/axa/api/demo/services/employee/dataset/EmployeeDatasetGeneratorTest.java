@@ -0,0 +1,56 @@
+package jp.co.axa.api.demo.services.employee.dataset;
+
+import jp.co.axa.api.demo.entities.employee.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EmployeeDatasetGeneratorTest {
+
+    @Test
+    public void nextTest_SameSeedSameEmployees() {
+        EmployeeDatasetGenerator generator = new EmployeeDatasetGenerator(7);
+        EmployeeDatasetGenerator sameSeed = new EmployeeDatasetGenerator(7);
+        EmployeeDatasetGenerator otherSeed = new EmployeeDatasetGenerator(8);
+        boolean differs = false;
+        for (long id = 1; id <= 100; id++) {
+            Employee employee = generator.next(id);
+            Employee same = sameSeed.next(id);
+            Employee other = otherSeed.next(id);
+            assertEquals(id, employee.getId());
+            assertEquals(0L, employee.getVersion());
+            assertEquals(employee.getName(), same.getName());
+            assertEquals(employee.getSalary(), same.getSalary());
+            assertEquals(employee.getDepartment(), same.getDepartment());
+            differs |= !employee.getName().equals(other.getName()) || !employee.getSalary().equals(other.getSalary());
+        }
+        assertThat(differs).isTrue();
+    }
+
+    @Test
+    public void nextTest_DepartmentsAndSalariesFollowTheirDistributions() {
+        EmployeeDatasetGenerator generator = new EmployeeDatasetGenerator(42);
+        int employees = 100_000;
+        Map<String, Integer> perDepartment = new HashMap<>();
+        long engineeringSalaries = 0;
+        for (long id = 1; id <= employees; id++) {
+            Employee employee = generator.next(id);
+            assertThat(employee.getSalary()).isGreaterThanOrEqualTo(EmployeeDatasetGenerator.MIN_SALARY);
+            perDepartment.merge(employee.getDepartment(), 1, Integer::sum);
+            if ("Engineering".equals(employee.getDepartment())) {
+                engineeringSalaries += employee.getSalary();
+            }
+        }
+        assertThat(perDepartment.keySet()).containsExactlyInAnyOrderElementsOf(Arrays.asList(EmployeeDatasetGenerator.DEPARTMENTS));
+        //weights 30 and 3 out of 100
+        assertThat(perDepartment.get("Engineering")).isBetween(29_000, 31_000);
+        assertThat(perDepartment.get("Legal")).isBetween(2_500, 3_500);
+        //log-normal around a median of 7500, its mean is a little higher
+        assertThat(engineeringSalaries / perDepartment.get("Engineering")).isBetween(7_500L, 8_500L);
+    }
+}
@@ -0,0 +1,125 @@
+package jp.co.axa.api.demo.services.employee.index;
+
+import jp.co.axa.api.demo.dto.employee.EmployeeNameDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmployeeNameIndexTest {
+
+    EmployeeNameIndex nameIndex;
+
+    @BeforeEach
+    void init() {
+        nameIndex = new EmployeeNameIndex();
+        nameIndex.put(1L, "Hashimoto");
+        nameIndex.put(2L, "Glow");
+        nameIndex.put(3L, "Allan");
+        nameIndex.put(4L, "Shawn");
+        nameIndex.put(5L, "Hana Shimoda");
+    }
+
+    private List<String> search(String query, int limit) {
+        return nameIndex.search(query, limit).stream().map(EmployeeNameDTO::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void searchTest_ShortQueryMatchesPrefixesOnly() {
+        assertEquals(Arrays.asList("Hana Shimoda", "Hashimoto"), search("ha", 10));
+        assertEquals(Collections.singletonList("Shawn"), search("SH", 10));
+    }
+
+    @Test
+    public void searchTest_PrefixMatchesComeFirst() {
+        nameIndex.put(6L, "Shimizu");
+        List<String> matches = search("shi", 10);
+        assertEquals("Shimizu", matches.get(0));
+        assertThat(matches.subList(1, matches.size())).containsExactlyInAnyOrder("Hashimoto", "Hana Shimoda");
+    }
+
+    @Test
+    public void searchTest_Substring() {
+        assertThat(search(" SHIMO", 10)).containsExactlyInAnyOrder("Hashimoto", "Hana Shimoda");
+        assertThat(search("lla", 10)).containsExactly("Allan");
+        assertTrue(search("xyz", 10).isEmpty());
+        //every trigram is present but not next to each other
+        assertTrue(search("hasimo", 10).isEmpty());
+    }
+
+    @Test
+    public void searchTest_Limit() {
+        assertEquals(1, search("shimo", 1).size());
+        assertTrue(search("shimo", 0).isEmpty());
+        assertTrue(search("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void searchTest_ReturnsIds() {
+        assertEquals(Collections.singletonList(new EmployeeNameDTO(3L, "Allan")), nameIndex.search("allan", 10));
+    }
+
+    @Test
+    public void putTest_ReplacesName() {
+        nameIndex.put(2L, "Glowing Star");
+        assertEquals(Collections.singletonList("Glowing Star"), search("star", 10));
+        nameIndex.put(2L, "Moon");
+        assertTrue(search("star", 10).isEmpty());
+        assertTrue(search("glow", 10).isEmpty());
+        assertEquals(5, nameIndex.size());
+    }
+
+    @Test
+    public void removeTest() {
+        nameIndex.put(6L, "Ananas");
+        assertEquals(Collections.singletonList("Ananas"), search("nan", 10));
+        nameIndex.remove(6L);
+        nameIndex.remove(1L);
+        assertTrue(search("nan", 10).isEmpty());
+        assertEquals(Collections.singletonList("Hana Shimoda"), search("shimo", 10));
+        assertEquals(4, nameIndex.size());
+        nameIndex.clear();
+        assertEquals(0, nameIndex.size());
+        assertTrue(search("shawn", 10).isEmpty());
+    }
+
+    @Test
+    public void removeTest_IdsOutOfOrder() {
+        nameIndex.put(40L, "Kanako");
+        nameIndex.put(20L, "Kanata");
+        nameIndex.put(30L, "Akane");
+        nameIndex.remove(20L);
+        assertEquals(Arrays.asList("Kanako", "Akane"), search("kan", 10));
+        nameIndex.put(20L, "Kanata");
+        nameIndex.remove(40L);
+        assertEquals(Arrays.asList("Hana Shimoda", "Kanata"), search("ana", 10));
+        assertEquals(7, nameIndex.size());
+    }
+
+    @Test
+    public void loadTest_WritesDuringTheLoadWin() {
+        nameIndex.startLoad();
+        assertEquals(0, nameIndex.size());
+        nameIndex.putLoaded(1L, "Hashimoto");
+        //deleted and renamed while the load still streams rows read before
+        nameIndex.remove(2L);
+        nameIndex.put(3L, "Allison");
+        nameIndex.putLoaded(2L, "Glow");
+        nameIndex.putLoaded(3L, "Allan");
+        nameIndex.finishLoad();
+
+        assertEquals(2, nameIndex.size());
+        assertTrue(search("glow", 10).isEmpty());
+        assertEquals(Collections.singletonList("Allison"), search("all", 10));
+        //once finished, the next load starts over
+        nameIndex.putLoaded(3L, "Allan");
+        assertEquals(Collections.singletonList("Allan"), search("all", 10));
+    }
+}